@@ -0,0 +1,44 @@
+package com.sdg.golf.service;
+
+import com.sdg.golf.service.ImportRoundService.Match;
+import com.sdg.golf.service.ImportService.PlayerExtract;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A generated league of {@code teams} teams with three players each, playing {@code weeks} weeks a season over
+ * {@code seasons} seasons. Players come in pairs sharing a first name, so half the card names need the last
+ * initial to resolve, as on the real score cards.
+ */
+class BenchmarkLeague {
+    static final int WEEKS = 16;
+    static final int PLAYERS_PER_TEAM = 3;
+
+    final List<PlayerExtract> players = new ArrayList<>();
+    final List<Match> matches = new ArrayList<>();
+    final List<String> cardNames = new ArrayList<>();
+    final List<Integer> weekIds = new ArrayList<>();
+
+    BenchmarkLeague(int teams, int seasons) {
+        for (int i = 0; i < teams * PLAYERS_PER_TEAM; i++) {
+            String lastName = (char) ('A' + i % 2) + "last" + i;
+            players.add(new PlayerExtract(i + 1, "Player" + i / 2, lastName, "player" + i + "@example.com", i % 30, "", i / PLAYERS_PER_TEAM + 1));
+        }
+        int matchId = 1;
+        for (int weekId = 1; weekId <= WEEKS * seasons; weekId++) {
+            weekIds.add(weekId);
+            for (int team = 1; team < teams; team += 2) {
+                matches.add(new Match(matchId++, weekId, team, team + 1));
+                for (int player = 0; player < 2; player++) {
+                    cardNames.add(cardName(players.get((team - 1) * PLAYERS_PER_TEAM + (weekId + player) % PLAYERS_PER_TEAM)));
+                    cardNames.add(cardName(players.get(team * PLAYERS_PER_TEAM + (weekId + player) % PLAYERS_PER_TEAM)));
+                }
+            }
+        }
+    }
+
+    private static String cardName(PlayerExtract player) {
+        return player.firstName() + " " + player.lastName().charAt(0);
+    }
+}
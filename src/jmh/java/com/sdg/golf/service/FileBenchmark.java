@@ -0,0 +1,82 @@
+package com.sdg.golf.service;
+
+import com.sdg.golf.service.ImportRoundService.Match;
+import com.sdg.golf.service.ImportService.PlayerExtract;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Parsing the player and match extract files and writing a season's round rows.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FileBenchmark {
+    @Param({"12", "48", "192"})
+    int teams;
+    @Param({"1", "5"})
+    int seasons;
+
+    private final ImportRoundService importRoundService = new ImportRoundService();
+    private Path dir;
+    private Path playerExtract;
+    private Path matchExtract;
+    private Path roundOutput;
+    private List<String> roundRows;
+
+    @Setup
+    public void setUp() throws IOException {
+        BenchmarkLeague league = new BenchmarkLeague(teams, seasons);
+        dir = Files.createTempDirectory("golf-league-bench");
+        List<String> playerLines = new ArrayList<>();
+        for (PlayerExtract p : league.players) {
+            playerLines.add(p.playerId() + "," + p.firstName() + "," + p.lastName() + "," + p.email() + "," + p.handicap() + ",," + p.teamId());
+        }
+        playerExtract = Files.write(dir.resolve("player-extract.txt"), playerLines);
+        List<String> matchLines = new ArrayList<>();
+        roundRows = new ArrayList<>();
+        for (Match m : league.matches) {
+            matchLines.add(m.id() + "," + m.weekId() + "," + m.team1Id() + "," + m.team2Id());
+            for (int player = 0; player < 4; player++) {
+                roundRows.add((m.id() * 4 + player) % league.players.size() + "," + m.id() + "," + (player % 2 == 0 ? m.team1Id() : m.team2Id()) + "," + (player + 8.0));
+            }
+        }
+        matchExtract = Files.write(dir.resolve("match-extract.txt"), matchLines);
+        roundOutput = dir.resolve("round.txt");
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(dir)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    @Benchmark
+    public List<PlayerExtract> readPlayerExtract() throws IOException {
+        return importRoundService.readPlayerExtract(playerExtract);
+    }
+
+    @Benchmark
+    public List<Match> readMatchExtract() throws IOException {
+        return importRoundService.readMatchExtract(matchExtract);
+    }
+
+    @Benchmark
+    public void writeStringsToFile() throws IOException {
+        importRoundService.writeStringsToFile(roundOutput, "player_id,match_id,team_id,handicap", roundRows);
+    }
+}
@@ -0,0 +1,75 @@
+package com.sdg.golf.service;
+
+import com.sdg.golf.service.ImportRoundService.Match;
+import com.sdg.golf.service.ImportService.PlayerExtract;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Resolving every card name of the league's seasons to a player and every player's team to a match id.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResolutionBenchmark {
+    @Param({"12", "48", "192"})
+    int teams;
+    @Param({"1", "5"})
+    int seasons;
+
+    private final ImportRoundService importRoundService = new ImportRoundService();
+    private final Date roundDate = new Date();
+    private List<PlayerExtract> players;
+    private String[] cardNames;
+    private PlayerNameIndex warmIndex;
+    private List<Match> matches;
+    private List<Integer> weekIds;
+    private MatchIndex matchIndex;
+
+    @Setup
+    public void setUp() {
+        BenchmarkLeague league = new BenchmarkLeague(teams, seasons);
+        players = league.players;
+        cardNames = league.cardNames.toArray(String[]::new);
+        warmIndex = new PlayerNameIndex(players, Map.of("baby", "Brien"));
+        matches = league.matches;
+        weekIds = league.weekIds;
+        matchIndex = new MatchIndex(matches, weekIds);
+    }
+
+    @Benchmark
+    public void resolveNamesMemoized(Blackhole blackhole) {
+        for (String cardName : cardNames) {
+            blackhole.consume(warmIndex.resolve(cardName));
+        }
+    }
+
+    @Benchmark
+    public void buildIndexAndResolveNames(Blackhole blackhole) {
+        PlayerNameIndex index = new PlayerNameIndex(players, Map.of("baby", "Brien"));
+        for (String cardName : cardNames) {
+            blackhole.consume(index.resolve(cardName));
+        }
+    }
+
+    @Benchmark
+    public void getMatchId(Blackhole blackhole) throws Exception {
+        for (Match match : matches) {
+            blackhole.consume(importRoundService.getMatchId(matchIndex, match.weekId(), match.team1Id(), roundDate, null));
+            blackhole.consume(importRoundService.getMatchId(matchIndex, match.weekId(), match.team2Id(), roundDate, null));
+        }
+    }
+
+    @Benchmark
+    public MatchIndex buildMatchIndex() {
+        return new MatchIndex(matches, weekIds);
+    }
+}
@@ -0,0 +1,67 @@
+package com.sdg.golf.service;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Turning score card and matchup rows into RoundPlayers and TeamNameAndTimes, one season being 16 weeks of
+ * four card rows per match.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WorkbookRowBenchmark {
+    @Param({"12", "48", "192"})
+    int teams;
+    @Param({"1", "5"})
+    int seasons;
+
+    private final ImportRoundService importRoundService = new ImportRoundService();
+    private final ImportWeekMatchService importWeekMatchService = new ImportWeekMatchService();
+    private SheetRow[] cardRows;
+    private SheetRow[] matchupRows;
+
+    @Setup
+    public void setUp() {
+        BenchmarkLeague league = new BenchmarkLeague(teams, seasons);
+        cardRows = new SheetRow[league.cardNames.size()];
+        for (int i = 0; i < cardRows.length; i++) {
+            SheetRow row = new SheetRow(false);
+            row.reset(i);
+            row.setString(0, league.cardNames.get(i));
+            row.setNumber(1, i % 30);
+            if (i % 7 == 0) {
+                row.setNumber(5, i % teams + 1);
+            }
+            cardRows[i] = row;
+        }
+        matchupRows = new SheetRow[teams * BenchmarkLeague.WEEKS * seasons];
+        for (int i = 0; i < matchupRows.length; i++) {
+            SheetRow row = new SheetRow(false);
+            row.reset(i);
+            row.setNumber(0, 0.18333333333333335);
+            row.setString(5, "Team " + i % teams);
+            row.setNumber(6, 0.18333333333333335 + (i % teams / 2) / 180.0);
+            matchupRows[i] = row;
+        }
+    }
+
+    @Benchmark
+    public void getRoundPlayer(Blackhole blackhole) {
+        for (SheetRow row : cardRows) {
+            blackhole.consume(importRoundService.getRoundPlayer(row));
+        }
+    }
+
+    @Benchmark
+    public void getTeamNameAndTime(Blackhole blackhole) {
+        for (SheetRow row : matchupRows) {
+            blackhole.consume(importWeekMatchService.getTeamNameAndTime(row));
+        }
+    }
+}
@@ -1,13 +1,18 @@
 package com.sdg.golf;
 
+import com.sdg.golf.batch.ImportBatchRunner;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.ConfigurableApplicationContext;
 
 @SpringBootApplication
 public class GolfLeagueImportApplication {
 
 	public static void main(String[] args) {
-		SpringApplication.run(GolfLeagueImportApplication.class, args);
+		ConfigurableApplicationContext context = SpringApplication.run(GolfLeagueImportApplication.class, args);
+		if (ImportBatchRunner.isBatch(context.getEnvironment())) {
+			System.exit(SpringApplication.exit(context));
+		}
 	}
 
 }
@@ -0,0 +1,28 @@
+package com.sdg.golf.batch;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.env.EnvironmentPostProcessor;
+import org.springframework.core.env.ConfigurableEnvironment;
+import org.springframework.core.env.MapPropertySource;
+
+import java.util.Map;
+
+/**
+ * Turns a run with {@code import.batch} set into a batch run whichever way it is set, on the command line, as an
+ * environment variable, a system property or in a properties file. A batch run needs no web server, and only creates
+ * the beans its imports use. The settings are added after every other property source, so a {@code spring.main}
+ * setting given for the run still wins.
+ */
+public class ImportBatchEnvironmentPostProcessor implements EnvironmentPostProcessor {
+    static final String PROPERTY_SOURCE_NAME = "importBatch";
+
+    @Override
+    public void postProcessEnvironment(ConfigurableEnvironment environment, SpringApplication application) {
+        if (ImportBatchRunner.isBatch(environment)) {
+            environment.getPropertySources().addLast(new MapPropertySource(PROPERTY_SOURCE_NAME, Map.of(
+                    "spring.main.web-application-type", "none",
+                    "spring.main.lazy-initialization", "true",
+                    "spring.main.banner-mode", "off")));
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.sdg.golf.batch;
+
+import com.sdg.golf.service.ImportProgress;
+import com.sdg.golf.service.ImportRoundService;
+import com.sdg.golf.service.ImportScoreService;
+import com.sdg.golf.service.ImportType;
+import com.sdg.golf.service.ImportWeekMatchService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.ExitCodeGenerator;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Runs the imports given by {@code import.batch} one after another and then lets the application exit, for
+ * scheduled imports that have no use for the web server. Each import takes the arguments of an import request,
+ * {@code type:fileName:seasonId:year}, and several are separated by commas. The imports stop at the first one that
+ * fails or resolves with errors, as the later ones usually read what the earlier ones write, and the exit code is
+ * then 1. The property may be set any way Spring reads one, {@link ImportBatchEnvironmentPostProcessor} making
+ * the run a batch run.
+ */
+@Component
+@ConditionalOnProperty(ImportBatchRunner.BATCH_PROPERTY)
+public class ImportBatchRunner implements ApplicationRunner, ExitCodeGenerator {
+    public static final String BATCH_PROPERTY = "import.batch";
+    private static final Logger logger = LoggerFactory.getLogger(ImportBatchRunner.class);
+
+    private final ImportWeekMatchService importWeekMatchService;
+    private final ImportRoundService importRoundService;
+    private final ImportScoreService importScoreService;
+    private final List<BatchImport> imports;
+    private int exitCode;
+
+    @Autowired
+    public ImportBatchRunner(ImportWeekMatchService importWeekMatchService, ImportRoundService importRoundService,
+                             ImportScoreService importScoreService, @Value("${" + BATCH_PROPERTY + "}") String batch) {
+        this.importWeekMatchService = importWeekMatchService;
+        this.importRoundService = importRoundService;
+        this.importScoreService = importScoreService;
+        this.imports = parse(batch);
+    }
+
+    /**
+     * @return whether the run is a batch run rather than the web server, matching when this runner is created
+     */
+    public static boolean isBatch(Environment environment) {
+        String batch = environment.getProperty(BATCH_PROPERTY);
+        return batch != null && !batch.equalsIgnoreCase("false");
+    }
+
+    /**
+     * @param batch comma separated type:fileName:seasonId:year imports, the file name may itself contain colons
+     */
+    static List<BatchImport> parse(String batch) {
+        List<BatchImport> imports = new ArrayList<>();
+        for (String entry : batch.split(",")) {
+            if (entry.isBlank()) {
+                continue;
+            }
+            int typeEnd = entry.indexOf(':');
+            int yearStart = entry.lastIndexOf(':');
+            int seasonIdStart = yearStart > 0 ? entry.lastIndexOf(':', yearStart - 1) : -1;
+            if (typeEnd < 0 || seasonIdStart <= typeEnd) {
+                throw new IllegalArgumentException("Batch import %s is not type:fileName:seasonId:year".formatted(entry.trim()));
+            }
+            ImportType type = ImportType.valueOf(entry.substring(0, typeEnd).trim().toUpperCase());
+            if (type == ImportType.SEASON) {
+                throw new IllegalArgumentException("A season import reads two workbooks and cannot be run as a batch import");
+            }
+            imports.add(new BatchImport(type, entry.substring(typeEnd + 1, seasonIdStart).trim(),
+                    Integer.parseInt(entry.substring(seasonIdStart + 1, yearStart).trim()),
+                    Integer.parseInt(entry.substring(yearStart + 1).trim())));
+        }
+        if (imports.isEmpty()) {
+            throw new IllegalArgumentException("No imports given by " + BATCH_PROPERTY);
+        }
+        return imports;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        for (BatchImport batchImport : imports) {
+            long start = System.nanoTime();
+            List<String> errors;
+            try {
+                errors = runImport(batchImport);
+            } catch (Exception e) {
+                logger.error("Batch import {} failed", batchImport, e);
+                errors = List.of(String.valueOf(e.getMessage()));
+            }
+            if (!errors.isEmpty()) {
+                logger.error("Batch import {} has {} errors, not running the imports after it", batchImport, errors.size());
+                exitCode = 1;
+                return;
+            }
+            logger.info("Batch import {} took {} ms", batchImport, (System.nanoTime() - start) / 1_000_000);
+        }
+    }
+
+    private List<String> runImport(BatchImport batchImport) throws Exception {
+        String fileName = batchImport.fileName();
+        int seasonId = batchImport.seasonId();
+        int year = batchImport.year();
+        return switch (batchImport.type()) {
+            case WEEKS -> {
+                importWeekMatchService.importWeeks(fileName, seasonId, year, ImportProgress.NONE);
+                yield List.of();
+            }
+            case MATCHUPS -> {
+                importWeekMatchService.importMatchups(fileName, seasonId, year, ImportProgress.NONE);
+                yield List.of();
+            }
+            case ROUNDS -> importRoundService.importRounds(fileName, seasonId, year, ImportProgress.NONE).getErrors();
+            case SCORES -> importScoreService.importScores(fileName, seasonId, year, ImportProgress.NONE).errors();
+            default -> throw new IllegalStateException("Unexpected batch import type: " + batchImport.type());
+        };
+    }
+
+    @Override
+    public int getExitCode() {
+        return exitCode;
+    }
+
+    record BatchImport(ImportType type, String fileName, int seasonId, int year) {}
+}
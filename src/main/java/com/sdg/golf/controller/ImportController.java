@@ -1,43 +1,126 @@
 package com.sdg.golf.controller;
 
-import com.sdg.golf.service.ImportRoundService;
-import com.sdg.golf.service.ImportWeekMatchService;
+import com.sdg.golf.service.HandicapService;
+import com.sdg.golf.service.ImportCoordinator;
+import com.sdg.golf.service.ImportScoreService;
+import com.sdg.golf.service.ImportSeasonService;
+import com.sdg.golf.service.League;
+import com.sdg.golf.service.LeagueRegistry;
+import com.sdg.golf.service.ReferenceDataCache;
+import com.sdg.golf.service.SheetSnapshotCache;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
 
-import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
 
+/**
+ * Runs imports for the league named in the request (the default league when none is), on the league's executor.
+ * An unknown league is refused with 404 and a league already running and queueing as many imports as it may with 503.
+ */
 @RestController
 @RequestMapping("/import")
 public class ImportController {
 
-    private final ImportWeekMatchService importWeekMatchService;
-    private final ImportRoundService importRoundService;
+    private final LeagueRegistry leagueRegistry;
+    private final SheetSnapshotCache sheetSnapshotCache;
     @Autowired
-    public ImportController(ImportWeekMatchService importWeekMatchService, ImportRoundService importRoundService) {
-        this.importWeekMatchService = importWeekMatchService;
-        this.importRoundService = importRoundService;
+    public ImportController(LeagueRegistry leagueRegistry, SheetSnapshotCache sheetSnapshotCache) {
+        this.leagueRegistry = leagueRegistry;
+        this.sheetSnapshotCache = sheetSnapshotCache;
     }
 
     @PostMapping("/weeks")
-    public ImportRequest importWeeks(@RequestBody ImportRequest importRequest) throws IOException {
-        this.importWeekMatchService.importWeeks(importRequest.fileName(), importRequest.seasonId(), importRequest.year());
+    public ImportRequest importWeeks(@RequestBody ImportRequest importRequest) throws Exception {
+        League league = getLeague(leagueRegistry, importRequest.league());
+        run(league, () -> {
+            league.getImportWeekMatchService().importWeeks(importRequest.fileName(), importRequest.seasonId(), importRequest.year());
+            return null;
+        });
         return importRequest;
     }
 
     @PostMapping("/matchups")
     public ImportRequest importMatchUps(@RequestBody ImportRequest importRequest) throws Exception {
-        this.importWeekMatchService.importMatchups(importRequest.fileName(), importRequest.seasonId(), importRequest.year());
+        League league = getLeague(leagueRegistry, importRequest.league());
+        run(league, () -> {
+            league.getImportWeekMatchService().importMatchups(importRequest.fileName(), importRequest.seasonId(), importRequest.year());
+            return null;
+        });
         return importRequest;
     }
 
     @PostMapping("/rounds")
-    public ImportRequest importRounds(@RequestBody ImportRequest importRequest) throws Exception {
-        this.importRoundService.importRounds(importRequest.fileName(), importRequest.seasonId(), importRequest.year());
+    public ImportRequest importRounds(@RequestBody ImportRequest importRequest,
+                                      @RequestParam(defaultValue = "false") boolean incremental) throws Exception {
+        League league = getLeague(leagueRegistry, importRequest.league());
+        run(league, () -> league.getImportRoundService().importRounds(importRequest.fileName(), importRequest.seasonId(),
+                importRequest.year(), incremental));
         return importRequest;
     }
-    public record ImportRequest(String fileName, int seasonId, int year) {}
+
+    @PostMapping("/scores")
+    public ImportScoreService.ScoreResult importScores(@RequestBody ImportRequest importRequest) throws Exception {
+        League league = getLeague(leagueRegistry, importRequest.league());
+        return run(league, () -> league.getImportScoreService().importScores(importRequest.fileName(), importRequest.seasonId(),
+                importRequest.year()));
+    }
+
+    @PostMapping("/handicaps/replay")
+    public HandicapService.HandicapResult replayHandicaps(@RequestBody HandicapReplayRequest request) throws Exception {
+        League league = getLeague(leagueRegistry, request.league());
+        return run(league, () -> league.getHandicapService().replay(request.years()));
+    }
+
+    @PostMapping("/season")
+    public ImportSeasonService.SeasonResult importSeason(@RequestBody SeasonImportRequest request) throws Exception {
+        League league = getLeague(leagueRegistry, request.league());
+        return run(league, () -> league.getImportSeasonService().importSeason(request.matchupFileName(), request.scoreCardFileName(),
+                request.seasonId(), request.year(), request.firstWeekId() != null ? request.firstWeekId() : 1,
+                request.firstMatchId() != null ? request.firstMatchId() : 1));
+    }
+
+    @GetMapping("/reference-cache")
+    public ReferenceDataCache.Stats referenceCacheStats(@RequestParam(required = false) String league) {
+        return getLeague(leagueRegistry, league).getReferenceDataCache().getStats();
+    }
+
+    @GetMapping("/sheet-cache")
+    public SheetSnapshotCache.Stats sheetCacheStats() {
+        return sheetSnapshotCache.getStats();
+    }
+
+    static League getLeague(LeagueRegistry leagueRegistry, String leagueId) {
+        return leagueRegistry.find(leagueId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "No league " + leagueId));
+    }
+
+    static <T> T run(League league, ImportCoordinator.ImportCall<T, Exception> call) throws Exception {
+        try {
+            return league.run(call);
+        } catch (RejectedExecutionException e) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "League %s has too many imports running".formatted(league.getId()));
+        }
+    }
+
+    /**
+     * @param league the league to import for, the default league when absent
+     */
+    public record ImportRequest(String fileName, int seasonId, int year, String league) {}
+
+    public record HandicapReplayRequest(List<Integer> years, String league) {}
+
+    /**
+     * @param firstWeekId  the id the season's first week is given, 1 when absent
+     * @param firstMatchId the id the season's first match is given, 1 when absent
+     */
+    public record SeasonImportRequest(String matchupFileName, String scoreCardFileName, int seasonId, int year,
+                                      Integer firstWeekId, Integer firstMatchId, String league) {}
 }
@@ -0,0 +1,71 @@
+package com.sdg.golf.controller;
+
+import com.sdg.golf.controller.ImportController.ImportRequest;
+import com.sdg.golf.service.ImportJob;
+import com.sdg.golf.service.ImportJobService;
+import com.sdg.golf.service.ImportType;
+import com.sdg.golf.service.LeagueRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.concurrent.RejectedExecutionException;
+
+@RestController
+@RequestMapping("/import/jobs")
+public class ImportJobController {
+
+    private final ImportJobService importJobService;
+    private final LeagueRegistry leagueRegistry;
+    @Autowired
+    public ImportJobController(ImportJobService importJobService, LeagueRegistry leagueRegistry) {
+        this.importJobService = importJobService;
+        this.leagueRegistry = leagueRegistry;
+    }
+
+    @PostMapping("/weeks")
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public ImportJob.Status importWeeks(@RequestBody ImportRequest importRequest) {
+        return submit(ImportType.WEEKS, importRequest);
+    }
+
+    @PostMapping("/matchups")
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public ImportJob.Status importMatchUps(@RequestBody ImportRequest importRequest) {
+        return submit(ImportType.MATCHUPS, importRequest);
+    }
+
+    @PostMapping("/rounds")
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public ImportJob.Status importRounds(@RequestBody ImportRequest importRequest) {
+        return submit(ImportType.ROUNDS, importRequest);
+    }
+
+    @PostMapping("/scores")
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public ImportJob.Status importScores(@RequestBody ImportRequest importRequest) {
+        return submit(ImportType.SCORES, importRequest);
+    }
+
+    @GetMapping("/{jobId}")
+    public ImportJob.Status getStatus(@PathVariable String jobId) {
+        return importJobService.getStatus(jobId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "No import job " + jobId));
+    }
+
+    private ImportJob.Status submit(ImportType type, ImportRequest importRequest) {
+        try {
+            return importJobService.submit(ImportController.getLeague(leagueRegistry, importRequest.league()), type,
+                    importRequest.fileName(), importRequest.seasonId(), importRequest.year());
+        } catch (RejectedExecutionException e) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Import job queue of the league is full");
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.sdg.golf.controller;
+
+import com.sdg.golf.service.ImportProgress;
+import com.sdg.golf.service.ImportType;
+import com.sdg.golf.service.League;
+import com.sdg.golf.service.LeagueRegistry;
+import com.sdg.golf.service.UploadRejectedException;
+import com.sdg.golf.service.UploadedWorkbook;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Imports a workbook sent with the request rather than one already on the server. The body is either the xlsx
+ * itself or multipart/form-data with the workbook as its file part, and is parsed straight from the request stream
+ * without being saved first; Spring's multipart handling is turned off so that parts are not copied to disk either.
+ * Bodies over {@code import.upload.max-size} are refused with 413, before reading when the request says how long it
+ * is, as are workbooks inflating past {@code import.upload.max-inflated-size}, and anything that is not an xlsx
+ * workbook with 415.
+ */
+@RestController
+@RequestMapping("/import/upload")
+public class ImportUploadController {
+    private static final MediaType XLSX = MediaType.parseMediaType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet");
+
+    private final LeagueRegistry leagueRegistry;
+    private final long maxBytes;
+    private final long maxInflatedBytes;
+    @Autowired
+    public ImportUploadController(LeagueRegistry leagueRegistry, @Value("${import.upload.max-size:20MB}") DataSize maxSize,
+                                  @Value("${import.upload.max-inflated-size:200MB}") DataSize maxInflatedSize) {
+        this.leagueRegistry = leagueRegistry;
+        this.maxBytes = maxSize.toBytes();
+        this.maxInflatedBytes = maxInflatedSize.toBytes();
+    }
+
+    /**
+     * @param type     weeks, matchups, rounds or scores
+     * @param fileName what to call a workbook sent as the whole body in messages
+     * @param league   the league to import for, the default league when absent
+     */
+    @PostMapping("/{type}")
+    public UploadResult upload(@PathVariable String type, @RequestParam int seasonId, @RequestParam int year,
+                               @RequestParam(defaultValue = "upload.xlsx") String fileName,
+                               @RequestParam(required = false) String league,
+                               HttpServletRequest request) throws Exception {
+        ImportType importType = getImportType(type);
+        League importLeague = ImportController.getLeague(leagueRegistry, league);
+        if (request.getContentLengthLong() > maxBytes) {
+            throw new ResponseStatusException(HttpStatus.PAYLOAD_TOO_LARGE, "Upload is larger than %d bytes".formatted(maxBytes));
+        }
+        try (UploadedWorkbook workbook = openWorkbook(request, fileName)) {
+            // the body has been read by now, so only the import itself takes one of the league's threads
+            List<String> errors = ImportController.run(importLeague, () -> switch (importType) {
+                case WEEKS -> {
+                    importLeague.getImportWeekMatchService().importWeeks(workbook, seasonId, year, ImportProgress.NONE);
+                    yield List.of();
+                }
+                case MATCHUPS -> {
+                    importLeague.getImportWeekMatchService().importMatchups(workbook, seasonId, year, ImportProgress.NONE);
+                    yield List.of();
+                }
+                case ROUNDS -> importLeague.getImportRoundService().importRounds(workbook, seasonId, year, false, ImportProgress.NONE).getErrors();
+                case SCORES -> importLeague.getImportScoreService().importScores(workbook, seasonId, year, ImportProgress.NONE).errors();
+                default -> throw new IllegalStateException("No upload import for " + importType);
+            });
+            return new UploadResult(workbook.name(), importType, seasonId, year, errors);
+        } catch (UploadRejectedException e) {
+            HttpStatus status = e.getReason() == UploadRejectedException.Reason.TOO_LARGE ? HttpStatus.PAYLOAD_TOO_LARGE : HttpStatus.UNSUPPORTED_MEDIA_TYPE;
+            throw new ResponseStatusException(status, e.getMessage());
+        }
+    }
+
+    private ImportType getImportType(String type) {
+        return switch (type) {
+            case "weeks" -> ImportType.WEEKS;
+            case "matchups" -> ImportType.MATCHUPS;
+            case "rounds" -> ImportType.ROUNDS;
+            case "scores" -> ImportType.SCORES;
+            default -> throw new ResponseStatusException(HttpStatus.NOT_FOUND, "No upload import for " + type);
+        };
+    }
+
+    private UploadedWorkbook openWorkbook(HttpServletRequest request, String fileName) throws IOException {
+        MediaType contentType;
+        try {
+            contentType = MediaType.parseMediaType(request.getContentType());
+        } catch (InvalidMediaTypeException e) {
+            throw new ResponseStatusException(HttpStatus.UNSUPPORTED_MEDIA_TYPE, "Upload has no valid Content-Type");
+        }
+        if (MediaType.MULTIPART_FORM_DATA.includes(contentType)) {
+            MultipartFileStream part = MultipartFileStream.open(request.getInputStream(), contentType.getParameter("boundary"), maxBytes);
+            return UploadedWorkbook.read(part.getFileName(), part, maxBytes, maxInflatedBytes);
+        }
+        if (XLSX.includes(contentType) || MediaType.APPLICATION_OCTET_STREAM.includes(contentType)) {
+            return UploadedWorkbook.read(fileName, request.getInputStream(), maxBytes, maxInflatedBytes);
+        }
+        throw new ResponseStatusException(HttpStatus.UNSUPPORTED_MEDIA_TYPE, "Upload an xlsx workbook, not " + contentType);
+    }
+
+    public record UploadResult(String fileName, ImportType type, int seasonId, int year, List<String> errors) {}
+}
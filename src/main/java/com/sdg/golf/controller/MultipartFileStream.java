@@ -0,0 +1,167 @@
+package com.sdg.golf.controller;
+
+import com.sdg.golf.service.UploadRejectedException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+
+/**
+ * The body of the first file part of a multipart/form-data request, read straight from the request stream. Parts
+ * before it are skipped and nothing after its closing boundary is read. The stream holds one buffer of the body at
+ * a time, keeping back just enough bytes to spot the boundary when it is split across reads.
+ */
+class MultipartFileStream extends InputStream {
+    private static final int BUFFER_SIZE = 16 * 1024;
+    private static final int MAX_HEADER_LINE = 8 * 1024;
+
+    private final InputStream in;
+    private final byte[] delimiter;
+    private final byte[] buffer;
+    private int pos;
+    private int limit;
+    private boolean eof;
+    private boolean atDelimiter;
+    private String fileName;
+
+    private MultipartFileStream(InputStream in, String boundary) {
+        this.in = in;
+        this.delimiter = ("\r\n--" + boundary).getBytes(StandardCharsets.US_ASCII);
+        this.buffer = new byte[BUFFER_SIZE + delimiter.length];
+        // the first boundary has no line break before it, starting with one lets it be found like the others
+        buffer[0] = '\r';
+        buffer[1] = '\n';
+        limit = 2;
+    }
+
+    /**
+     * @param maxSkipBytes the most that is skipped in parts before the file part
+     */
+    static MultipartFileStream open(InputStream in, String boundary, long maxSkipBytes) throws IOException {
+        if (boundary == null || boundary.isBlank()) {
+            throw new UploadRejectedException(UploadRejectedException.Reason.NOT_XLSX, "Multipart request has no boundary");
+        }
+        MultipartFileStream part = new MultipartFileStream(in, boundary.replace("\"", ""));
+        long skipped = 0;
+        while (true) {
+            skipped += part.skipToDelimiter();
+            if (skipped > maxSkipBytes) {
+                throw new UploadRejectedException(UploadRejectedException.Reason.TOO_LARGE, "Multipart request is larger than %d bytes".formatted(maxSkipBytes));
+            }
+            if (part.readLine().startsWith("--")) {
+                throw new UploadRejectedException(UploadRejectedException.Reason.NOT_XLSX, "Multipart request has no file part");
+            }
+            String line;
+            while (!(line = part.readLine()).isEmpty()) {
+                String lower = line.toLowerCase(Locale.ROOT);
+                int fileNameAt = lower.indexOf("filename=");
+                if (lower.startsWith("content-disposition:") && fileNameAt >= 0) {
+                    part.fileName = line.substring(fileNameAt + "filename=".length()).split(";")[0].trim().replace("\"", "");
+                }
+            }
+            if (part.fileName != null) {
+                part.atDelimiter = false;
+                return part;
+            }
+        }
+    }
+
+    String getFileName() {
+        return fileName;
+    }
+
+    @Override
+    public int read() throws IOException {
+        byte[] b = new byte[1];
+        return read(b, 0, 1) < 0 ? -1 : b[0] & 0xff;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (atDelimiter) {
+            return -1;
+        }
+        fill();
+        int found = indexOfDelimiter();
+        if (found == pos) {
+            atDelimiter = true;
+            pos += delimiter.length;
+            return -1;
+        }
+        // bytes from where the delimiter could start are kept back until more has been read
+        int available = found >= 0 ? found : (eof ? limit : limit - delimiter.length + 1);
+        if (available <= pos) {
+            throw new IOException("Multipart request ended without its closing boundary");
+        }
+        int n = Math.min(len, available - pos);
+        System.arraycopy(buffer, pos, b, off, n);
+        pos += n;
+        return n;
+    }
+
+    private long skipToDelimiter() throws IOException {
+        atDelimiter = false;
+        long skipped = 0;
+        byte[] skip = new byte[BUFFER_SIZE];
+        int n;
+        while ((n = read(skip, 0, skip.length)) >= 0) {
+            skipped += n;
+        }
+        return skipped;
+    }
+
+    private String readLine() throws IOException {
+        StringBuilder line = new StringBuilder();
+        while (true) {
+            if (pos == limit) {
+                fill();
+                if (pos == limit) {
+                    throw new IOException("Multipart request ended in a part header");
+                }
+            }
+            byte b = buffer[pos++];
+            if (b == '\n') {
+                int end = line.length() > 0 && line.charAt(line.length() - 1) == '\r' ? line.length() - 1 : line.length();
+                return line.substring(0, end);
+            }
+            if (line.length() == MAX_HEADER_LINE) {
+                throw new IOException("Multipart part header line is longer than %d bytes".formatted(MAX_HEADER_LINE));
+            }
+            line.append((char) (b & 0xff));
+        }
+    }
+
+    /**
+     * Moves what is left to the front of the buffer and reads until a whole delimiter fits after pos.
+     */
+    private void fill() throws IOException {
+        if (limit - pos >= delimiter.length || eof) {
+            return;
+        }
+        System.arraycopy(buffer, pos, buffer, 0, limit - pos);
+        limit -= pos;
+        pos = 0;
+        while (limit < delimiter.length && !eof) {
+            int n = in.read(buffer, limit, buffer.length - limit);
+            if (n < 0) {
+                eof = true;
+            } else {
+                limit += n;
+            }
+        }
+    }
+
+    private int indexOfDelimiter() {
+        for (int i = pos; i <= limit - delimiter.length; i++) {
+            int j = 0;
+            while (j < delimiter.length && buffer[i + j] == delimiter[j]) {
+                j++;
+            }
+            if (j == delimiter.length) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
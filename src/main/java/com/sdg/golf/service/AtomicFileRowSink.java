@@ -0,0 +1,182 @@
+package com.sdg.golf.service;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.time.LocalDate;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Writes rows to a temp file next to the target through a {@link FileChannel}, encoding into one reused buffer,
+ * and renames the temp file over the target on {@link #commit()}. A failed or abandoned import leaves the previous
+ * target untouched rather than a truncated file. Rows are separated by the platform line separator with no
+ * separator after the last row, as the import files have always been written. The temp file is created with the
+ * default permissions of a new file, and takes the permissions of the target it replaces, so whoever could read
+ * the target before still can.
+ */
+public class AtomicFileRowSink implements RowSink {
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final String LINE_SEPARATOR = System.lineSeparator();
+
+    private final Path target;
+    private final Path temp;
+    private final FileChannel channel;
+    private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder();
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+    private final StringBuilder row = new StringBuilder();
+    private boolean firstLine = true;
+    private boolean committed;
+    private long rowsWritten;
+    private long bytesWritten;
+
+    /**
+     * @param header written as the first line unless empty
+     */
+    public AtomicFileRowSink(Path target, String header) throws IOException {
+        this.target = target.toAbsolutePath();
+        Path temp;
+        FileChannel channel;
+        while (true) {
+            temp = this.target.resolveSibling(this.target.getFileName().toString()
+                    + Long.toUnsignedString(ThreadLocalRandom.current().nextLong()) + ".tmp");
+            try {
+                channel = FileChannel.open(temp, StandardOpenOption.WRITE, StandardOpenOption.CREATE_NEW);
+                break;
+            } catch (FileAlreadyExistsException e) {
+                // another sink drew the same name, draw again
+            }
+        }
+        this.temp = temp;
+        this.channel = channel;
+        if (!header.isEmpty()) {
+            writeLine(header);
+        }
+    }
+
+    @Override
+    public RowSink field(CharSequence value) {
+        separate().append(value);
+        return this;
+    }
+
+    @Override
+    public RowSink field(int value) {
+        separate().append(value);
+        return this;
+    }
+
+    @Override
+    public RowSink field(double value) {
+        separate().append(value);
+        return this;
+    }
+
+    @Override
+    public RowSink field(LocalDate value) {
+        separate().append(value);
+        return this;
+    }
+
+    @Override
+    public RowSink nullField() {
+        separate().append("null");
+        return this;
+    }
+
+    private StringBuilder separate() {
+        if (!row.isEmpty()) {
+            row.append(',');
+        }
+        return row;
+    }
+
+    @Override
+    public void endRow() throws IOException {
+        writeLine(row);
+        row.setLength(0);
+        rowsWritten++;
+    }
+
+    private void writeLine(CharSequence line) throws IOException {
+        if (!firstLine) {
+            encode(LINE_SEPARATOR);
+        }
+        firstLine = false;
+        encode(line);
+    }
+
+    private void encode(CharSequence chars) throws IOException {
+        CharBuffer in = CharBuffer.wrap(chars);
+        while (true) {
+            CoderResult result = encoder.encode(in, buffer, false);
+            if (result.isOverflow()) {
+                drain();
+            } else if (result.isUnderflow()) {
+                return;
+            } else {
+                result.throwException();
+            }
+        }
+    }
+
+    private void drain() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            bytesWritten += channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    @Override
+    public void commit() throws IOException {
+        encoder.encode(CharBuffer.allocate(0), buffer, true);
+        encoder.flush(buffer);
+        drain();
+        channel.force(false);
+        channel.close();
+        copyPermissionsOfTarget();
+        try {
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+        committed = true;
+    }
+
+    private void copyPermissionsOfTarget() throws IOException {
+        PosixFileAttributeView targetView = Files.getFileAttributeView(target, PosixFileAttributeView.class, LinkOption.NOFOLLOW_LINKS);
+        if (targetView != null && Files.exists(target, LinkOption.NOFOLLOW_LINKS)) {
+            Files.getFileAttributeView(temp, PosixFileAttributeView.class).setPermissions(targetView.readAttributes().permissions());
+        }
+    }
+
+    @Override
+    public long getRowsWritten() {
+        return rowsWritten;
+    }
+
+    @Override
+    public long getBytesWritten() {
+        return bytesWritten;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (!committed) {
+            channel.close();
+            Files.deleteIfExists(temp);
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.sdg.golf.service;
+
+import java.util.Arrays;
+
+/**
+ * Rolling handicaps kept up to date a round at a time. Each player has a ring of their most recent differentials
+ * (strokes over par) along with the running sum of the ring, all held in primitive arrays indexed by player id, so
+ * recording a round replaces the oldest differential and adjusts the sum without looking at the player's other
+ * rounds. A handicap is the allowance times the average differential in the ring.
+ */
+public class HandicapEngine {
+    private static final int INITIAL_PLAYERS = 256;
+
+    private final int window;
+    private final int par;
+    private final double allowance;
+
+    private short[] differentials;
+    private int[] sums;
+    private byte[] counts;
+    private byte[] nextSlots;
+
+    /**
+     * @param window the number of most recent rounds a handicap is worked out from, at most 127
+     * @param par the par of a round
+     * @param allowance the share of the average differential a player gets as their handicap
+     */
+    public HandicapEngine(int window, int par, double allowance) {
+        if (window < 1 || window > Byte.MAX_VALUE) {
+            throw new IllegalArgumentException("Handicap window must be between 1 and 127 rounds: " + window);
+        }
+        this.window = window;
+        this.par = par;
+        this.allowance = allowance;
+        differentials = new short[INITIAL_PLAYERS * window];
+        sums = new int[INITIAL_PLAYERS];
+        counts = new byte[INITIAL_PLAYERS];
+        nextSlots = new byte[INITIAL_PLAYERS];
+    }
+
+    public void record(int playerId, int strokes) {
+        ensureCapacity(playerId + 1);
+        int slot = nextSlots[playerId];
+        int index = playerId * window + slot;
+        if (counts[playerId] == window) {
+            sums[playerId] -= differentials[index];
+        } else {
+            counts[playerId]++;
+        }
+        int differential = strokes - par;
+        differentials[index] = (short) differential;
+        sums[playerId] += differential;
+        nextSlots[playerId] = (byte) (slot + 1 == window ? 0 : slot + 1);
+    }
+
+    /**
+     * @return the number of rounds the player's handicap is worked out from
+     */
+    public int getRounds(int playerId) {
+        return playerId < counts.length ? counts[playerId] : 0;
+    }
+
+    /**
+     * @return the player's handicap, or NaN when they have no rounds
+     */
+    public double getHandicap(int playerId) {
+        int rounds = getRounds(playerId);
+        return rounds == 0 ? Double.NaN : allowance * sums[playerId] / rounds;
+    }
+
+    /**
+     * @return one more than the highest player id a round could have been recorded for
+     */
+    public int getPlayerIdLimit() {
+        return counts.length;
+    }
+
+    /**
+     * @return an engine carrying on from this one's rounds that can be fed without changing this one
+     */
+    public HandicapEngine copy() {
+        HandicapEngine copy = new HandicapEngine(window, par, allowance);
+        copy.differentials = differentials.clone();
+        copy.sums = sums.clone();
+        copy.counts = counts.clone();
+        copy.nextSlots = nextSlots.clone();
+        return copy;
+    }
+
+    private void ensureCapacity(int players) {
+        if (players > sums.length) {
+            int capacity = Math.max(players, sums.length * 2);
+            differentials = Arrays.copyOf(differentials, capacity * window);
+            sums = Arrays.copyOf(sums, capacity);
+            counts = Arrays.copyOf(counts, capacity);
+            nextSlots = Arrays.copyOf(nextSlots, capacity);
+        }
+    }
+}
@@ -0,0 +1,294 @@
+package com.sdg.golf.service;
+
+import com.sdg.golf.service.ImportRoundService.Match;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.function.Predicate;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Rolling handicaps worked out from the imported scores. Each season's rounds are fed through a {@link HandicapEngine}
+ * carried on from the end of the season before it, and every player's handicap is written to
+ * handicap-yyyy-seasonId.txt after each week. Seasons are played in year order and a year's seasons in season id
+ * order. The engine as it stood at the end of each season is kept, so a season scored again only feeds its own
+ * rounds; the seasons after it were worked out from the earlier run and are dropped until they are scored or replayed
+ * again. Seasons scored before a restart are not kept, so the engine is rebuilt from the score-yyyy-seasonId.txt
+ * files of the earlier seasons, those of the same year included, without writing their handicaps again, before
+ * carrying it on through a season.
+ */
+@Service
+public class HandicapService extends ImportService {
+    private static final Logger logger = LoggerFactory.getLogger(HandicapService.class);
+    private static final Pattern SCORE_FILE_SEASON = Pattern.compile("score-(\\d+)-(\\d+)\\.txt");
+
+    private final ImportRoundService importRoundService;
+    private final NavigableMap<SeasonKey, HandicapEngine> engineAfterSeason = new TreeMap<>();
+    private int window = 5;
+    private int par = 36;
+    private double allowance = 0.8;
+
+    @Autowired
+    public HandicapService(ImportRoundService importRoundService) {
+        this.importRoundService = importRoundService;
+    }
+
+    /**
+     * Carries the handicaps on through a season's scores, which must be in round date order.
+     */
+    public synchronized HandicapResult seasonScored(int year, int seasonId, ScoreStore scores) throws IOException {
+        SeasonKey season = new SeasonKey(year, seasonId);
+        HandicapEngine engine = getEngineBefore(season);
+        int weeks = feed(engine, scores, getWeekIdByMatchId(year, seasonId), season);
+        NavigableMap<SeasonKey, HandicapEngine> later = engineAfterSeason.tailMap(season, false);
+        if (!later.isEmpty()) {
+            logger.warn("Handicaps of seasons {} were worked out before {} was scored and must be replayed", later.keySet(), season);
+            later.clear();
+        }
+        engineAfterSeason.put(season, engine);
+        return new HandicapResult(1, scores.size(), weeks, countPlayers(engine));
+    }
+
+    /**
+     * @return a copy of the engine as it stood at the end of the last season before this one, carried on through the
+     * score files of any earlier seasons scored since that season was kept
+     */
+    private HandicapEngine getEngineBefore(SeasonKey season) throws IOException {
+        Map.Entry<SeasonKey, HandicapEngine> before = engineAfterSeason.lowerEntry(season);
+        HandicapEngine engine = before != null ? before.getValue().copy() : new HandicapEngine(window, par, allowance);
+        if (importDatabase != null) {
+            if (before == null) {
+                logger.warn("No season before {} has been scored since the application started, its handicaps start from no rounds", season);
+            }
+            return engine;
+        }
+        SeasonKey from = before != null ? before.getKey() : null;
+        for (SeasonKey scored : getScoredSeasons(key -> (from == null || key.compareTo(from) > 0) && key.compareTo(season) < 0)) {
+            try {
+                ScoreStore scores = readScores(getFile(SCORES_IMPORT_FILE, scored.toString()));
+                feed(engine, scores, getWeekIdByMatchId(scored.year(), scored.seasonId()), scored, null);
+            } catch (IOException e) {
+                throw new IOException("Handicaps of %s carry on from %s, which cannot be read back; replay the handicaps once it can"
+                        .formatted(season, scored), e);
+            }
+            engineAfterSeason.put(scored, engine.copy());
+            logger.info("Handicaps carried on from the scores of {}", scored);
+        }
+        return engine;
+    }
+
+    /**
+     * @return the seasons with a score file that the filter accepts, in the order they were played
+     */
+    private List<SeasonKey> getScoredSeasons(Predicate<SeasonKey> filter) throws IOException {
+        if (!Files.isDirectory(fileRoot)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(fileRoot)) {
+            return files.map(file -> SCORE_FILE_SEASON.matcher(file.getFileName().toString()))
+                    .filter(Matcher::matches)
+                    .map(matcher -> new SeasonKey(Integer.parseInt(matcher.group(1)), Integer.parseInt(matcher.group(2))))
+                    .filter(filter)
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    /**
+     * Works the handicaps out again from the score files of every season of the years, in the order they were
+     * played, starting from no rounds. The weeks of the rounds are taken from the match-extract files.
+     */
+    public synchronized HandicapResult replay(List<Integer> years) throws IOException {
+        if (importDatabase != null) {
+            throw new IOException("Handicaps are replayed from the score files, which are not written when importing into the database");
+        }
+        List<SeasonKey> seasons = getScoredSeasons(key -> years.contains(key.year()));
+        for (int year : years) {
+            if (seasons.stream().noneMatch(season -> season.year() == year)) {
+                throw new IOException("No season of %s has a score file to replay".formatted(year));
+            }
+        }
+        HandicapEngine engine = new HandicapEngine(window, par, allowance);
+        engineAfterSeason.clear();
+        int rounds = 0;
+        int weeks = 0;
+        for (SeasonKey season : seasons) {
+            ScoreStore scores = readScores(getFile(SCORES_IMPORT_FILE, season.toString()));
+            weeks += feed(engine, scores, getWeekIdByMatchId(season.year(), season.seasonId()), season);
+            rounds += scores.size();
+            engineAfterSeason.put(season, engine.copy());
+        }
+        return new HandicapResult(engineAfterSeason.size(), rounds, weeks, countPlayers(engine));
+    }
+
+    /**
+     * Records the rounds and writes the season's handicap file.
+     *
+     * @return the number of weeks written
+     */
+    private int feed(HandicapEngine engine, ScoreStore scores, Map<Integer, Integer> weekIdByMatchId, SeasonKey season) throws IOException {
+        try (RowSink sink = openRowSink(getFile(HANDICAP_FILE, season.toString()), "week_id,player_id,rounds,handicap")) {
+            int weeks = feed(engine, scores, weekIdByMatchId, season, sink);
+            sink.commit();
+            return weeks;
+        }
+    }
+
+    /**
+     * Records the rounds a week at a time, writing every player's handicap once the week's rounds are in.
+     *
+     * @param sink where the handicaps are written, null to only record the rounds
+     * @return the number of weeks
+     */
+    private int feed(HandicapEngine engine, ScoreStore scores, Map<Integer, Integer> weekIdByMatchId, SeasonKey season, RowSink sink) throws IOException {
+        int weeks = 0;
+        Integer weekId = null;
+        for (int round = 0; round < scores.size(); round++) {
+            Integer roundWeekId = weekIdByMatchId.get(scores.getMatchId(round));
+            if (roundWeekId == null) {
+                throw new IOException("No week for match %s of player %s in %s".formatted(scores.getMatchId(round), scores.getPlayerId(round), season));
+            }
+            if (weekId != null && !weekId.equals(roundWeekId)) {
+                writeSnapshot(engine, weekId, sink);
+                weeks++;
+            }
+            weekId = roundWeekId;
+            engine.record(scores.getPlayerId(round), scores.getTotal(round));
+        }
+        if (weekId != null) {
+            writeSnapshot(engine, weekId, sink);
+            weeks++;
+        }
+        return weeks;
+    }
+
+    private void writeSnapshot(HandicapEngine engine, int weekId, RowSink sink) throws IOException {
+        if (sink == null) {
+            return;
+        }
+        for (int playerId = 0; playerId < engine.getPlayerIdLimit(); playerId++) {
+            int rounds = engine.getRounds(playerId);
+            if (rounds > 0) {
+                sink.field(weekId).field(playerId).field(rounds).field(Math.round(engine.getHandicap(playerId) * 10) / 10.0).endRow();
+            }
+        }
+    }
+
+    private Map<Integer, Integer> getWeekIdByMatchId(int year, int seasonId) throws IOException {
+        List<Match> matches = importDatabase != null ? importDatabase.getMatches(seasonId)
+                : importRoundService.readMatchExtract(getFile(MATCH_EXTRACT_FILE, year));
+        Map<Integer, Integer> weekIdByMatchId = new HashMap<>();
+        for (Match match : matches) {
+            weekIdByMatchId.put(match.id(), match.weekId());
+        }
+        return weekIdByMatchId;
+    }
+
+    /**
+     * Reads a score file back into a store, a round being the consecutive rows of a player and match.
+     */
+    ScoreStore readScores(Path scoreFile) throws IOException {
+        ScoreStore scores = new ScoreStore();
+        byte[] strokes = new byte[ScoreStore.HOLES];
+        MappedCsvReader csv = MappedCsvReader.open(scoreFile);
+        int holes = 0;
+        int playerId = 0;
+        int matchId = 0;
+        int firstHole = 0;
+        while (csv.nextRecord()) {
+            if (csv.lineEquals("player_id,match_id,hole,strokes")) {
+                continue;
+            }
+            int rowPlayerId = csv.nextInt();
+            int rowMatchId = csv.nextInt();
+            int hole = csv.nextInt();
+            if (holes == 0) {
+                playerId = rowPlayerId;
+                matchId = rowMatchId;
+                firstHole = hole;
+            } else if (rowPlayerId != playerId || rowMatchId != matchId) {
+                throw new IOException("Round of player %s in match %s has %s holes in %s".formatted(playerId, matchId, holes, scoreFile));
+            }
+            strokes[holes++] = (byte) csv.nextInt();
+            if (holes == ScoreStore.HOLES) {
+                scores.add(playerId, matchId, firstHole, strokes, 0);
+                holes = 0;
+            }
+        }
+        if (holes != 0) {
+            throw new IOException("Round of player %s in match %s has %s holes in %s".formatted(playerId, matchId, holes, scoreFile));
+        }
+        return scores;
+    }
+
+    private static int countPlayers(HandicapEngine engine) {
+        int players = 0;
+        for (int playerId = 0; playerId < engine.getPlayerIdLimit(); playerId++) {
+            if (engine.getRounds(playerId) > 0) {
+                players++;
+            }
+        }
+        return players;
+    }
+
+    @Override
+    void configureForLeague(ImportService defaults, Path leagueFileRoot, ReferenceDataCache leagueReferenceDataCache) {
+        super.configureForLeague(defaults, leagueFileRoot, leagueReferenceDataCache);
+        HandicapService handicapDefaults = (HandicapService) defaults;
+        window = handicapDefaults.window;
+        par = handicapDefaults.par;
+        allowance = handicapDefaults.allowance;
+    }
+
+    @Value("${import.handicap.rounds:5}")
+    void setWindow(int window) {
+        this.window = window;
+    }
+
+    @Value("${import.handicap.par:36}")
+    void setPar(int par) {
+        this.par = par;
+    }
+
+    @Value("${import.handicap.allowance:0.8}")
+    void setAllowance(double allowance) {
+        this.allowance = allowance;
+    }
+
+    /**
+     * Seasons in the order their rounds are played, a year's seasons by id, written as year-seasonId as in the names
+     * of the score and handicap files.
+     */
+    private record SeasonKey(int year, int seasonId) implements Comparable<SeasonKey> {
+        private static final Comparator<SeasonKey> ORDER = Comparator.comparingInt(SeasonKey::year).thenComparingInt(SeasonKey::seasonId);
+
+        @Override
+        public int compareTo(SeasonKey other) {
+            return ORDER.compare(this, other);
+        }
+
+        @Override
+        public String toString() {
+            return year + "-" + seasonId;
+        }
+    }
+
+    /**
+     * @param players the players with a handicap at the end of the last season
+     */
+    public record HandicapResult(int seasons, int rounds, int weeks, int players) {}
+}
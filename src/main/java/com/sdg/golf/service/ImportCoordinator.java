@@ -0,0 +1,111 @@
+package com.sdg.golf.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Keeps imports running at the same time from racing on their output. Identical imports in flight together (the
+ * same type, workbook, season, year and options) share one run and its result, and an import holds the locks of the
+ * files it writes while it runs. The locks are striped, each file's path picking one of
+ * {@code import.lock-stripes} locks, so imports of different years run side by side while two writing the same file
+ * take turns.
+ */
+@Component
+public class ImportCoordinator {
+    private static final Logger logger = LoggerFactory.getLogger(ImportCoordinator.class);
+
+    private final Map<List<Object>, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    private final ReentrantLock[] stripes;
+    private final AtomicLong coalesced = new AtomicLong();
+
+    public ImportCoordinator(@Value("${import.lock-stripes:64}") int stripes) {
+        this.stripes = new ReentrantLock[stripes];
+        for (int i = 0; i < stripes; i++) {
+            this.stripes[i] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * Runs the import, or when an import with the same key is already running waits for it and returns its result
+     * (or throws what it threw) instead. An import asked for after the running one finishes runs again.
+     *
+     * @param key everything that decides what the import reads and writes
+     */
+    @SuppressWarnings("unchecked")
+    public <T, E extends Exception> T coalesce(List<Object> key, ImportCall<T, E> call) throws E {
+        CompletableFuture<Object> flight = new CompletableFuture<>();
+        CompletableFuture<Object> running = inFlight.putIfAbsent(key, flight);
+        if (running != null) {
+            coalesced.incrementAndGet();
+            logger.debug("Waiting for the import of {} already running", key);
+            try {
+                return (T) running.join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException runtimeException) {
+                    throw runtimeException;
+                }
+                if (e.getCause() instanceof Error error) {
+                    throw error;
+                }
+                // the running import was given the same call type, so throws nothing else that is checked
+                throw (E) e.getCause();
+            }
+        }
+        try {
+            T result = call.call();
+            flight.complete(result);
+            return result;
+        } catch (Throwable e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, flight);
+        }
+    }
+
+    /**
+     * Runs the import holding the lock of each file it writes. The locks are taken in stripe order, so two imports
+     * writing some of the same files cannot each hold a lock the other is waiting for.
+     */
+    public <T, E extends Exception> T withLocks(Collection<Path> outputs, ImportCall<T, E> call) throws E {
+        int[] locked = outputs.stream().mapToInt(this::stripe).distinct().sorted().toArray();
+        for (int i = 0; i < locked.length; i++) {
+            stripes[locked[i]].lock();
+        }
+        try {
+            return call.call();
+        } finally {
+            for (int i = locked.length - 1; i >= 0; i--) {
+                stripes[locked[i]].unlock();
+            }
+        }
+    }
+
+    /**
+     * @return the number of imports that waited for an identical one instead of running
+     */
+    public long getCoalesced() {
+        return coalesced.get();
+    }
+
+    private int stripe(Path output) {
+        return Math.floorMod(output.toAbsolutePath().normalize().hashCode(), stripes.length);
+    }
+
+    @FunctionalInterface
+    public interface ImportCall<T, E extends Exception> {
+        T call() throws E;
+    }
+}
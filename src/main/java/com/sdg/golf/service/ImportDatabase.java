@@ -0,0 +1,166 @@
+package com.sdg.golf.service;
+
+import com.sdg.golf.service.ImportRoundService.Match;
+import com.sdg.golf.service.ImportService.PlayerExtract;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.sql.*;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.*;
+import java.util.Date;
+
+/**
+ * Loads imports straight into the league tables when {@code import.jdbc.url} is set, in place of the import files.
+ * The matchup import reads the season's week ids and the round import its match ids back from the tables, so the
+ * week-extract and match-extract files need not be built by hand. They are queried for each import rather than
+ * kept, so rows changed by anything else are seen by the next import. Players come from the player table.
+ * Table names are quoted for the database, match being a keyword to some. An import replaces the season's rows of
+ * its table, so running it again leaves the rows of one run rather than adding them twice.
+ */
+@Component
+@ConditionalOnProperty("import.jdbc.url")
+public class ImportDatabase {
+    static final String WEEK_TABLE = "week";
+    static final String MATCH_TABLE = "match";
+    static final String ROUND_TABLE = "round";
+    static final String SCORE_TABLE = "score";
+    static final String PLAYER_TABLE = "player";
+    /**
+     * The tables whose rows of a season are deleted when a table's rows of the season are replaced, the rows pointing
+     * at the replaced ones first, as the ids they point at are gone with them.
+     */
+    private static final Map<String, List<String>> REPLACED_WITH = Map.of(
+            WEEK_TABLE, List.of(SCORE_TABLE, ROUND_TABLE, MATCH_TABLE, WEEK_TABLE),
+            MATCH_TABLE, List.of(SCORE_TABLE, ROUND_TABLE, MATCH_TABLE),
+            ROUND_TABLE, List.of(ROUND_TABLE),
+            SCORE_TABLE, List.of(SCORE_TABLE));
+
+    private final String url;
+    private final String username;
+    private final String password;
+    private final int batchSize;
+
+    public ImportDatabase(@Value("${import.jdbc.url}") String url,
+                          @Value("${import.jdbc.username:}") String username,
+                          @Value("${import.jdbc.password:}") String password,
+                          @Value("${import.jdbc.batch-size:500}") int batchSize) {
+        this.url = url;
+        this.username = username;
+        this.password = password;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * @param columns comma separated, in the order the fields are added
+     */
+    public RowSink openSink(String table, String columns) throws IOException {
+        return new JdbcRowSink(connect(), table, List.of(columns.split(",")), batchSize);
+    }
+
+    /**
+     * Opens a sink whose rows replace the season's rows of one of the league tables. The season's rows, and those of
+     * the tables pointing at them, are deleted in the sink's transaction before anything is inserted, so they only
+     * go once the sink commits.
+     */
+    public RowSink openSink(String table, int seasonId, String columns) throws IOException {
+        Connection connection = connect();
+        try {
+            connection.setAutoCommit(false);
+            for (String replaced : REPLACED_WITH.get(table)) {
+                deleteSeason(connection, replaced, seasonId);
+            }
+        } catch (SQLException e) {
+            try (connection) {
+                connection.rollback();
+            } catch (SQLException rollback) {
+                e.addSuppressed(rollback);
+            }
+            throw new IOException("Unable to replace the rows of season %s in %s".formatted(seasonId, table), e);
+        }
+        return new JdbcRowSink(connection, table, List.of(columns.split(",")), batchSize);
+    }
+
+    private static void deleteSeason(Connection connection, String table, int seasonId) throws SQLException {
+        String sql = switch (table) {
+            case WEEK_TABLE -> quoteTables(connection, "delete from %s where season_id = ?", List.of(WEEK_TABLE));
+            case MATCH_TABLE -> quoteTables(connection, "delete from %s where week_id in (select id from %s where season_id = ?)",
+                    List.of(MATCH_TABLE, WEEK_TABLE));
+            default -> quoteTables(connection, "delete from %s where match_id in"
+                    + " (select m.id from %s m join %s w on m.week_id = w.id where w.season_id = ?)", List.of(table, MATCH_TABLE, WEEK_TABLE));
+        };
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setInt(1, seasonId);
+            statement.executeUpdate();
+        }
+    }
+
+    public Map<Date, Integer> getWeekDateToIdMap(int seasonId) throws IOException {
+        Map<Date, Integer> weekIds = new HashMap<>();
+        query("select id, date from %s where season_id = ?", List.of(WEEK_TABLE), seasonId,
+                rs -> weekIds.put(toDate(rs.getDate(2).toLocalDate()), rs.getInt(1)));
+        return weekIds;
+    }
+
+    public List<Match> getMatches(int seasonId) throws IOException {
+        List<Match> matches = new ArrayList<>();
+        query("select m.id, m.week_id, m.team_1, m.team_2 from %s m join %s w on m.week_id = w.id"
+                        + " where w.season_id = ? and m.team_1 is not null and m.team_2 is not null", List.of(MATCH_TABLE, WEEK_TABLE), seasonId,
+                rs -> matches.add(new Match(rs.getInt(1), rs.getInt(2), rs.getInt(3), rs.getInt(4))));
+        return matches;
+    }
+
+    public List<PlayerExtract> getPlayers() throws IOException {
+        List<PlayerExtract> players = new ArrayList<>();
+        query("select id, first_name, last_name, email, handicap, phone, team_id from %s order by id", List.of(PLAYER_TABLE), null,
+                rs -> players.add(new PlayerExtract(rs.getInt(1), rs.getString(2), rs.getString(3), rs.getString(4),
+                        rs.getDouble(5), Objects.toString(rs.getString(6), ""), rs.getInt(7))));
+        return players;
+    }
+
+    /**
+     * @param sql with a %s for each of the tables, which are quoted for the database
+     */
+    private void query(String sql, List<String> tables, Integer seasonId, RowHandler handler) throws IOException {
+        try (Connection connection = connect(); PreparedStatement statement = connection.prepareStatement(quoteTables(connection, sql, tables))) {
+            if (seasonId != null) {
+                statement.setInt(1, seasonId);
+            }
+            try (ResultSet rs = statement.executeQuery()) {
+                while (rs.next()) {
+                    handler.handle(rs);
+                }
+            }
+        } catch (SQLException e) {
+            throw new IOException("Unable to query " + sql, e);
+        }
+    }
+
+    private static String quoteTables(Connection connection, String sql, List<String> tables) throws SQLException {
+        DatabaseMetaData metaData = connection.getMetaData();
+        Object[] quoted = new Object[tables.size()];
+        for (int i = 0; i < quoted.length; i++) {
+            quoted[i] = JdbcRowSink.quote(metaData, tables.get(i));
+        }
+        return sql.formatted(quoted);
+    }
+
+    private Connection connect() throws IOException {
+        try {
+            return DriverManager.getConnection(url, username, password);
+        } catch (SQLException e) {
+            throw new IOException("Unable to connect to " + url, e);
+        }
+    }
+
+    private static Date toDate(LocalDate date) {
+        return Date.from(date.atStartOfDay(ZoneId.systemDefault()).toInstant());
+    }
+
+    private interface RowHandler {
+        void handle(ResultSet rs) throws SQLException;
+    }
+}
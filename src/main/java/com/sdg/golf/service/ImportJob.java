@@ -0,0 +1,72 @@
+package com.sdg.golf.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * An import submitted to {@link ImportJobService}, tracking its state and the progress its import reports.
+ */
+public class ImportJob implements ImportProgress {
+    public enum State { QUEUED, RUNNING, COMPLETED, FAILED }
+
+    private final String id = UUID.randomUUID().toString();
+    private final ImportType type;
+    private final AtomicInteger rowsProcessed = new AtomicInteger();
+    private final AtomicInteger sheetsDone = new AtomicInteger();
+    private final List<String> errors = new ArrayList<>();
+    private volatile State state = State.QUEUED;
+    private volatile long startNanos;
+    private volatile long endNanos;
+
+    ImportJob(ImportType type) {
+        this.type = type;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public ImportType getType() {
+        return type;
+    }
+
+    @Override
+    public void rowsProcessed(int rows) {
+        rowsProcessed.addAndGet(rows);
+    }
+
+    @Override
+    public void sheetDone() {
+        sheetsDone.incrementAndGet();
+    }
+
+    void started() {
+        startNanos = System.nanoTime();
+        state = State.RUNNING;
+    }
+
+    void finished(List<String> errors) {
+        synchronized (this.errors) {
+            this.errors.addAll(errors);
+        }
+        endNanos = System.nanoTime();
+        state = errors.isEmpty() ? State.COMPLETED : State.FAILED;
+    }
+
+    public Status getStatus() {
+        long elapsedNanos = switch (state) {
+            case QUEUED -> 0;
+            case RUNNING -> System.nanoTime() - startNanos;
+            case COMPLETED, FAILED -> endNanos - startNanos;
+        };
+        List<String> errorsSoFar;
+        synchronized (errors) {
+            errorsSoFar = List.copyOf(errors);
+        }
+        return new Status(id, type, state, rowsProcessed.get(), sheetsDone.get(), elapsedNanos / 1_000_000, errorsSoFar);
+    }
+
+    public record Status(String id, ImportType type, State state, int rowsProcessed, int sheetsDone, long elapsedMillis, List<String> errors) {}
+}
@@ -0,0 +1,78 @@
+package com.sdg.golf.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Runs imports in the background so the request thread can return a job id straight away. Each job runs on the
+ * executor of its {@link League}. Finished jobs are kept for status polling until more than
+ * {@code import.jobs.max-finished} have finished, oldest evicted first.
+ */
+@Service
+public class ImportJobService {
+    private static final Logger logger = LoggerFactory.getLogger(ImportJobService.class);
+
+    private final int maxFinishedJobs;
+    private final Map<String, ImportJob> jobs = new ConcurrentHashMap<>();
+    private final Deque<String> finishedJobIds = new ArrayDeque<>();
+
+    public ImportJobService(@Value("${import.jobs.max-finished:100}") int maxFinishedJobs) {
+        this.maxFinishedJobs = maxFinishedJobs;
+    }
+
+    /**
+     * @throws java.util.concurrent.RejectedExecutionException when the league's job queue is full
+     */
+    public ImportJob.Status submit(League league, ImportType type, String fileName, int seasonId, int year) {
+        ImportJob job = new ImportJob(type);
+        jobs.put(job.getId(), job);
+        try {
+            league.submit(() -> run(league, job, fileName, seasonId, year));
+        } catch (RuntimeException e) {
+            jobs.remove(job.getId());
+            throw e;
+        }
+        return job.getStatus();
+    }
+
+    public Optional<ImportJob.Status> getStatus(String jobId) {
+        return Optional.ofNullable(jobs.get(jobId)).map(ImportJob::getStatus);
+    }
+
+    private void run(League league, ImportJob job, String fileName, int seasonId, int year) {
+        job.started();
+        List<String> errors = List.of();
+        try {
+            switch (job.getType()) {
+                case WEEKS -> league.getImportWeekMatchService().importWeeks(fileName, seasonId, year, job);
+                case MATCHUPS -> league.getImportWeekMatchService().importMatchups(fileName, seasonId, year, job);
+                case ROUNDS -> errors = league.getImportRoundService().importRounds(fileName, seasonId, year, job).getErrors();
+                case SCORES -> errors = league.getImportScoreService().importScores(fileName, seasonId, year, job).errors();
+                default -> throw new IllegalStateException("No import job for " + job.getType());
+            }
+        } catch (Exception e) {
+            logger.error("Import job {} of league {} failed", job.getId(), league.getId(), e);
+            errors = List.of(String.valueOf(e.getMessage()));
+        }
+        job.finished(errors);
+        evictFinishedJobs(job);
+    }
+
+    private void evictFinishedJobs(ImportJob finishedJob) {
+        synchronized (finishedJobIds) {
+            finishedJobIds.addLast(finishedJob.getId());
+            while (finishedJobIds.size() > maxFinishedJobs) {
+                jobs.remove(finishedJobIds.removeFirst());
+            }
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package com.sdg.golf.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times and counts each phase of an import, tagged by import type and year. Meters are registered with the
+ * application's {@link MeterRegistry} and exposed through the actuator metrics and prometheus endpoints. With
+ * {@code import.metrics.enabled=false}, or no registry, every import gets {@link Recorder#NONE} and records nothing.
+ * <ul>
+ *     <li>import.workbook.open - opening a workbook and reading its shared strings</li>
+ *     <li>import.sheet.parse - parsing one sheet</li>
+ *     <li>import.rows.parsed - sheet rows read</li>
+ *     <li>import.names.resolved - card names resolved to a player, tagged result hit or miss</li>
+ *     <li>import.matches.unresolved - players whose team had no match that week</li>
+ *     <li>import.rows.written and import.bytes.written - output rows and bytes</li>
+ *     <li>import.duration - the whole import, tagged outcome success or failure</li>
+ * </ul>
+ */
+@Component
+public class ImportMetrics {
+    private final MeterRegistry registry;
+
+    @Autowired
+    public ImportMetrics(ObjectProvider<MeterRegistry> registry, @Value("${import.metrics.enabled:true}") boolean enabled) {
+        this(enabled ? registry.getIfAvailable() : null);
+    }
+
+    /**
+     * @param registry null to record nothing
+     */
+    ImportMetrics(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    public Recorder start(ImportType type, int year) {
+        return registry == null ? Recorder.NONE : new MeterRecorder(registry, Tags.of("type", type.name().toLowerCase(), "year", String.valueOf(year)));
+    }
+
+    /**
+     * Records one import. Round imports record from several threads at once.
+     */
+    public interface Recorder extends WorkbookReader.ReadListener {
+        Recorder NONE = new Recorder() {};
+
+        default void namesResolved(int hits, int misses) {
+        }
+
+        default void matchesUnresolved(int count) {
+        }
+
+        default void written(RowSink sink) {
+        }
+
+        /**
+         * @param success false when the import failed or left errors, its duration is still recorded
+         */
+        default void finished(boolean success) {
+        }
+    }
+
+    private static class MeterRecorder implements Recorder {
+        private final long start = System.nanoTime();
+        private final Timer workbookOpen;
+        private final Timer sheetParse;
+        private final Counter rowsParsed;
+        private final Counter nameHits;
+        private final Counter nameMisses;
+        private final Counter matchesUnresolved;
+        private final Counter rowsWritten;
+        private final Counter bytesWritten;
+        private final MeterRegistry registry;
+        private final Tags tags;
+
+        MeterRecorder(MeterRegistry registry, Tags tags) {
+            workbookOpen = Timer.builder("import.workbook.open").tags(tags).register(registry);
+            sheetParse = Timer.builder("import.sheet.parse").tags(tags).register(registry);
+            rowsParsed = Counter.builder("import.rows.parsed").tags(tags).register(registry);
+            nameHits = Counter.builder("import.names.resolved").tags(tags).tag("result", "hit").register(registry);
+            nameMisses = Counter.builder("import.names.resolved").tags(tags).tag("result", "miss").register(registry);
+            matchesUnresolved = Counter.builder("import.matches.unresolved").tags(tags).register(registry);
+            rowsWritten = Counter.builder("import.rows.written").tags(tags).register(registry);
+            bytesWritten = Counter.builder("import.bytes.written").baseUnit("bytes").tags(tags).register(registry);
+            this.registry = registry;
+            this.tags = tags;
+        }
+
+        @Override
+        public void workbookOpened(long nanos) {
+            workbookOpen.record(nanos, TimeUnit.NANOSECONDS);
+        }
+
+        @Override
+        public void sheetParsed(long nanos, int rows) {
+            sheetParse.record(nanos, TimeUnit.NANOSECONDS);
+            rowsParsed.increment(rows);
+        }
+
+        @Override
+        public void namesResolved(int hits, int misses) {
+            nameHits.increment(hits);
+            nameMisses.increment(misses);
+        }
+
+        @Override
+        public void matchesUnresolved(int count) {
+            matchesUnresolved.increment(count);
+        }
+
+        @Override
+        public void written(RowSink sink) {
+            rowsWritten.increment(sink.getRowsWritten());
+            bytesWritten.increment(sink.getBytesWritten());
+        }
+
+        @Override
+        public void finished(boolean success) {
+            Timer duration = Timer.builder("import.duration").tags(tags).tag("outcome", success ? "success" : "failure").register(registry);
+            duration.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.sdg.golf.service;
+
+/**
+ * Receives progress from a running import. Round imports report from several threads at once.
+ */
+public interface ImportProgress {
+    ImportProgress NONE = new ImportProgress() {};
+
+    default void rowsProcessed(int rows) {
+    }
+
+    default void sheetDone() {
+    }
+}
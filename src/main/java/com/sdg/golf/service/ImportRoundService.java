@@ -1,141 +1,325 @@
 package com.sdg.golf.service;
 
-import org.apache.poi.ss.usermodel.*;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.apache.poi.ss.usermodel.CellType;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 
-import java.io.FileInputStream;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.security.MessageDigest;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Predicate;
 
 @Service
 public class ImportRoundService extends ImportService {
     private static final Logger logger = LoggerFactory.getLogger(ImportRoundService.class);
 
-    public void importRounds(String fileName, int seasonId, int year) throws Exception {
-        Map<Date, Integer> weekDateToIdMap = getWeekDateToIdMap(year);
-        List<PlayerExtract> playerExtract = getPlayerExtract(year);
-        Map<Date, List<MatchPlayers>> seasonMatchMap = new HashMap<>();
-
-        try (FileInputStream fis = new FileInputStream(getPath(fileName).toFile());
-             Workbook workbook = new XSSFWorkbook(fis)) {
-
-            for (int i = 0; i < workbook.getNumberOfSheets(); i++) {
-                Sheet sheet = workbook.getSheetAt(i);
-                Date roundDate = getDateFromSheetName(sheet.getSheetName());
-                if (roundDate != null) {
-                    List<MatchPlayers> matchesForDate = new ArrayList<>();
-                    MatchPlayers match = new MatchPlayers();
-
-                    for (Row row : sheet) {
-                        RoundPlayer roundPlayer = getRoundPlayer(row);
-                        if (roundPlayer != null) {
-                            match.playersInMatch.add(roundPlayer);
-                            if (match.isRoundFull()) {
-                                matchesForDate.add(match);
-                                match = new MatchPlayers();
-                            }
-                        }
+    public SeasonRoundResult importRounds(String fileName, int seasonId, int year) throws Exception {
+        return importRounds(fileName, seasonId, year, ImportProgress.NONE);
+    }
+
+    public SeasonRoundResult importRounds(String fileName, int seasonId, int year, boolean incremental) throws Exception {
+        return importRounds(fileName, seasonId, year, incremental, ImportProgress.NONE);
+    }
+
+    public SeasonRoundResult importRounds(String fileName, int seasonId, int year, ImportProgress progress) throws Exception {
+        return importRounds(fileName, seasonId, year, false, progress);
+    }
+
+    /**
+     * @param incremental only parse and resolve the sheets that are new or changed since the last incremental
+     *                    import, taking the rounds of the others from its checkpoint
+     */
+    public SeasonRoundResult importRounds(String fileName, int seasonId, int year, boolean incremental,
+                                          ImportProgress progress) throws Exception {
+        return importCoordinator.coalesce(getImportKey(ImportType.ROUNDS, fileName, seasonId, year, incremental),
+                () -> importRounds(getWorkbook(fileName), seasonId, year, incremental, progress));
+    }
+
+    /**
+     * Holds the lock of the round file, which also covers the season's checkpoint.
+     */
+    public SeasonRoundResult importRounds(WorkbookSource workbook, int seasonId, int year, boolean incremental,
+                                          ImportProgress progress) throws Exception {
+        return importCoordinator.withLocks(List.of(getFile(ROUNDS_IMPORT_FILE, year)),
+                () -> writeRounds(workbook, seasonId, year, incremental, progress));
+    }
+
+    private SeasonRoundResult writeRounds(WorkbookSource workbook, int seasonId, int year, boolean incremental,
+                                          ImportProgress progress) throws Exception {
+        ImportMetrics.Recorder recorder = importMetrics.start(ImportType.ROUNDS, year);
+        boolean success = false;
+        try {
+            RoundContext context = getRoundContext(year, seasonId);
+            SeasonRoundResult srr;
+            if (incremental) {
+                Path checkpointFile = getFile(ROUNDS_CHECKPOINT_FILE, year + "-" + seasonId);
+                String referenceDigest = getReferenceDigest(year, seasonId, context.weekDateToIdMap());
+                srr = getRoundsIncrementally(workbook, context, checkpointFile, referenceDigest, progress, recorder);
+            } else {
+                srr = getRounds(workbook, CompletableFuture.completedFuture(context), progress, recorder);
+            }
+            srr.errors.addAll(0, context.matchIndex().getErrors());
+            if (srr.errors.isEmpty()) {
+                String header = "player_id,match_id,team_id,handicap";
+                try (RowSink sink = openRowSink(ImportDatabase.ROUND_TABLE, seasonId, getFile(ROUNDS_IMPORT_FILE, year), header)) {
+                    for (Round round : srr.rounds) {
+                        sink.field(round.playerId).field(round.matchId).field(round.teamId).field(round.handicap).endRow();
                     }
-                    seasonMatchMap.put(roundDate, matchesForDate);
+                    sink.commit();
+                    recorder.written(sink);
                 }
+            } else {
+                logger.error(String.join(System.lineSeparator(), srr.errors));
             }
+            success = srr.errors.isEmpty();
+            return srr;
+        } finally {
+            recorder.finished(success);
         }
+    }
 
-        SeasonRoundResult srr = getRounds(seasonMatchMap, playerExtract, weekDateToIdMap, year);
-        if (srr.errors.isEmpty()) {
-            String header = "player_id,match_id,team_id,handicap";
-            List<String> rounds = getRoundsRows(srr.rounds);
-            writeStringsToFile(Path.of(String.format(ROUNDS_IMPORT_FILE, year)), header, rounds);
-        } else {
-            logger.error(String.join(System.lineSeparator(), srr.errors));
+    RoundContext getRoundContext(int year, int seasonId) throws IOException {
+        Map<Date, Integer> weekDateToIdMap = getWeekDateToIdMap(year, seasonId);
+        PlayerNameIndex playerNameIndex = getPlayerNameIndex(year);
+        MatchIndex matchIndex = getMatchIndex(year, seasonId, weekDateToIdMap.values());
+        return new RoundContext(playerNameIndex, matchIndex, weekDateToIdMap);
+    }
+
+    SeasonRoundResult getRounds(WorkbookSource workbook, CompletableFuture<RoundContext> context, ImportProgress progress,
+                                ImportMetrics.Recorder recorder) throws IOException {
+        return getRounds(workbook, context, progress, recorder, false);
+    }
+
+    /**
+     * Parses the dated score card sheets concurrently, then resolves each one once the context is ready, so the
+     * sheets can be read while the weeks and matches they resolve against are still being worked out.
+     *
+     * @param withScores also read each player's strokes from their card into the result's {@link ScoreStore}
+     */
+    SeasonRoundResult getRounds(WorkbookSource workbook, CompletableFuture<RoundContext> context, ImportProgress progress,
+                                ImportMetrics.Recorder recorder, boolean withScores) throws IOException {
+        return getRounds(parseSheets(workbook, sheetName -> true, context, progress, recorder, withScores));
+    }
+
+    /**
+     * Digests every sheet and only parses the dated sheets whose digest differs from the checkpoint's, then saves
+     * the merged sheets as the new checkpoint. The checkpoint is ignored when the reference digest has changed.
+     */
+    private SeasonRoundResult getRoundsIncrementally(WorkbookSource workbook, RoundContext context, Path checkpointFile, String referenceDigest,
+                                                     ImportProgress progress, ImportMetrics.Recorder recorder) throws IOException {
+        Map<String, String> sheetDigests = workbookReader.digestSheets(workbook);
+        // the later of two sheets for the same date wins, as in a full import
+        Map<Date, String> sheetNameByDate = new HashMap<>();
+        for (String sheetName : sheetDigests.keySet()) {
+            Date roundDate = getDateFromSheetName(sheetName);
+            if (roundDate != null) {
+                sheetNameByDate.put(roundDate, sheetName);
+            }
+        }
+        RoundCheckpoint checkpoint = RoundCheckpoint.read(checkpointFile, referenceDigest);
+        RoundCheckpoint updated = new RoundCheckpoint(referenceDigest);
+        List<SheetRounds> sheetRounds = new ArrayList<>();
+        Set<String> changedSheetNames = new HashSet<>();
+        for (Map.Entry<Date, String> sheet : sheetNameByDate.entrySet()) {
+            String sheetDigest = sheetDigests.get(sheet.getValue());
+            SeasonRoundResult saved = checkpoint.get(sheet.getKey(), sheetDigest);
+            if (saved != null) {
+                sheetRounds.add(new SheetRounds(sheet.getKey(), saved));
+                updated.put(sheet.getKey(), sheetDigest, saved);
+                progress.sheetDone();
+            } else {
+                changedSheetNames.add(sheet.getValue());
+            }
+        }
+        logger.info("{} of {} score card sheets are new or changed since the last import", changedSheetNames.size(), sheetNameByDate.size());
+
+        List<SheetRounds> parsed = parseSheets(workbook, changedSheetNames::contains, CompletableFuture.completedFuture(context), progress,
+                recorder, false);
+        for (SheetRounds sheet : parsed) {
+            updated.put(sheet.roundDate(), sheetDigests.get(sheetNameByDate.get(sheet.roundDate())), sheet.result());
+        }
+        sheetRounds.addAll(parsed);
+        updated.write(checkpointFile);
+        return getRounds(sheetRounds);
+    }
+
+    private List<SheetRounds> parseSheets(WorkbookSource workbook, Predicate<String> sheetFilter, CompletableFuture<RoundContext> context,
+                                          ImportProgress progress, ImportMetrics.Recorder recorder, boolean withScores) throws IOException {
+        // sheet parsing and round resolution is cpu bound, so every import shares the one pool sized to the cores
+        List<RoundSheetTask> parsed = workbookReader.mapSheets(workbook, sheetName -> {
+            Date roundDate = getDateFromSheetName(sheetName);
+            return roundDate == null || !sheetFilter.test(sheetName) ? null : new RoundSheetTask(roundDate, withScores);
+        }, sheetParseExecutor, recorder);
+        // a sheet is only handed to the pool to resolve once the context is ready, no thread of it waits for the context
+        List<CompletableFuture<SheetRounds>> resolving = new ArrayList<>(parsed.size());
+        for (RoundSheetTask sheet : parsed) {
+            resolving.add(context.thenApplyAsync(rc -> sheet.resolve(rc, progress, recorder), sheetParseExecutor));
+        }
+        List<SheetRounds> sheetRounds = new ArrayList<>(resolving.size());
+        for (CompletableFuture<SheetRounds> sheet : resolving) {
+            sheetRounds.add(join(sheet));
+        }
+        return sheetRounds;
+    }
+
+    private static <T> T join(CompletableFuture<T> future) throws IOException {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof IOException ioException) {
+                throw ioException;
+            }
+            throw e;
         }
     }
 
-    private List<String> getRoundsRows(List<Round> rounds) {
-        return rounds.stream()
-                .map(round -> round.playerId + "," + round.matchId + "," + round.teamId + "," + round.handicap)
-                .toList();
+    /**
+     * A digest of the players, matches, weeks and aliases the score cards are resolved against, so that the
+     * checkpoint is thrown away when any of them changes.
+     */
+    private String getReferenceDigest(int year, int seasonId, Map<Date, Integer> weekDateToIdMap) throws IOException {
+        MessageDigest digest = WorkbookReader.newDigest();
+        if (importDatabase != null) {
+            digest.update(importDatabase.getPlayers().toString().getBytes(StandardCharsets.UTF_8));
+            digest.update(importDatabase.getMatches(seasonId).toString().getBytes(StandardCharsets.UTF_8));
+        } else {
+            digest.update(Files.readAllBytes(getFile(PLAYER_EXTRACT_FILE, year)));
+            digest.update(Files.readAllBytes(getFile(MATCH_EXTRACT_FILE, year)));
+        }
+        digest.update(new TreeMap<>(weekDateToIdMap).toString().getBytes(StandardCharsets.UTF_8));
+        digest.update(new TreeMap<>(playerAliases).toString().getBytes(StandardCharsets.UTF_8));
+        return HexFormat.of().formatHex(digest.digest());
     }
 
-    private SeasonRoundResult getRounds(Map<Date, List<MatchPlayers>> seasonMatchMap, List<PlayerExtract> playerExtract, Map<Date, Integer> weekDateToIdMap, int year) throws IOException {
-        Map<String, List<PlayerExtract>> playerExtractMap = createPlayerExtractMap(playerExtract);
-        Map<Integer, List<Match>> weekIdToMatch = getWeekIdToMatchMap(year);
+    /**
+     * Merges the per sheet results ordered by round date, each sheet keeping its card order. When two sheets
+     * name the same date the later sheet in the workbook wins.
+     */
+    private SeasonRoundResult getRounds(List<SheetRounds> sheetRounds) {
+        Map<Date, SeasonRoundResult> roundsByDate = new TreeMap<>();
+        for (SheetRounds sheet : sheetRounds) {
+            roundsByDate.put(sheet.roundDate(), sheet.result());
+        }
         SeasonRoundResult srr = new SeasonRoundResult();
+        for (SeasonRoundResult dateResult : roundsByDate.values()) {
+            srr.rounds.addAll(dateResult.rounds);
+            srr.errors.addAll(dateResult.errors);
+            if (dateResult.scores != null) {
+                if (srr.scores == null) {
+                    srr.scores = new ScoreStore(srr.rounds.size());
+                }
+                srr.scores.addAll(dateResult.scores);
+            }
+        }
+        return srr;
+    }
 
-        for (Date roundDate : seasonMatchMap.keySet()) {
-            Integer weekId = weekDateToIdMap.get(roundDate);
-            if (weekId != null) {
-                List<MatchPlayers> aWeeksMatches = seasonMatchMap.get(roundDate);
-                for (MatchPlayers match : aWeeksMatches) {
-                    for (RoundPlayer playerInMatch : match.playersInMatch) {
-                        try {
-                            PlayerExtract matchingPlayerExtract = findMatchingPlayerExtract(playerInMatch, playerExtractMap, roundDate);
-                            int playerId = matchingPlayerExtract.playerId();
-                            int teamId = playerInMatch.teamIdForRound > 0 ? playerInMatch.teamIdForRound : matchingPlayerExtract.teamId();
-                            int matchId = getMatchId(weekIdToMatch.get(weekId), teamId, roundDate, matchingPlayerExtract);
-                            double handicap = playerInMatch.handicapOnCard;
-                            srr.rounds.add(new Round(playerId, matchId, teamId, handicap));
-                        } catch (Exception e) {
-                            srr.errors.add(e.getMessage());
+    /**
+     * @param cardScores the strokes read from the sheet's cards, or null when scores are not being imported
+     */
+    private SeasonRoundResult getRounds(Date roundDate, List<MatchPlayers> aWeeksMatches, PlayerNameIndex playerNameIndex,
+                                        MatchIndex matchIndex, Map<Date, Integer> weekDateToIdMap, ScoreStore cardScores,
+                                        ImportMetrics.Recorder recorder) {
+        SeasonRoundResult srr = new SeasonRoundResult();
+        if (cardScores != null) {
+            srr.scores = new ScoreStore(cardScores.size());
+        }
+        Integer weekId = weekDateToIdMap.get(roundDate);
+        if (weekId != null) {
+            int names = 0;
+            int nameMisses = 0;
+            int unresolvedMatches = 0;
+            for (MatchPlayers match : aWeeksMatches) {
+                for (RoundPlayer playerInMatch : match.playersInMatch) {
+                    names++;
+                    PlayerExtract matchingPlayerExtract = null;
+                    try {
+                        matchingPlayerExtract = findMatchingPlayerExtract(playerInMatch, playerNameIndex, roundDate);
+                        int playerId = matchingPlayerExtract.playerId();
+                        int teamId = playerInMatch.teamIdForRound > 0 ? playerInMatch.teamIdForRound : matchingPlayerExtract.teamId();
+                        int matchId = getMatchId(matchIndex, weekId, teamId, roundDate, matchingPlayerExtract);
+                        double handicap = playerInMatch.handicapOnCard;
+                        srr.rounds.add(new Round(playerId, matchId, teamId, handicap));
+                        if (cardScores != null && playerInMatch.scoreRound >= 0) {
+                            srr.scores.add(playerId, matchId, cardScores, playerInMatch.scoreRound);
+                        }
+                    } catch (Exception e) {
+                        if (matchingPlayerExtract == null) {
+                            nameMisses++;
+                        } else {
+                            unresolvedMatches++;
                         }
+                        srr.errors.add(e.getMessage());
                     }
                 }
             }
+            recorder.namesResolved(names - nameMisses, nameMisses);
+            recorder.matchesUnresolved(unresolvedMatches);
         }
         return srr;
     }
 
-    private PlayerExtract findMatchingPlayerExtract(RoundPlayer playerInMatch, Map<String, List<PlayerExtract>> playerExtractMap, Date roundDate) throws Exception {
-        String[] playerOnCardToken = playerInMatch.nameOnCard.split(" ");
-
-        try {
-            return getPlayerExtract(playerOnCardToken, playerExtractMap);
-        } catch (Exception e) {
-            throw new Exception(e.getMessage() + " for round date %s".formatted(roundDate));
+    private PlayerExtract findMatchingPlayerExtract(RoundPlayer playerInMatch, PlayerNameIndex playerNameIndex, Date roundDate) throws Exception {
+        PlayerExtract playerExtract = playerNameIndex.resolve(playerInMatch.nameOnCard);
+        if (playerExtract == null) {
+            throw new Exception("No player on player extract file for %s for round date %s".formatted(playerInMatch.nameOnCard, roundDate));
         }
+        return playerExtract;
     }
 
-    private int getMatchId(List<Match> matchesForWeek, int teamId, Date roundDate, PlayerExtract matchingPlayerExtract) throws Exception {
-        for (Match match : matchesForWeek) {
-            if (match.team1Id == teamId || match.team2Id == teamId) {
-                return match.id;
+    int getMatchId(MatchIndex matchIndex, int weekId, int teamId, Date roundDate, PlayerExtract matchingPlayerExtract) throws Exception {
+        int matchId = matchIndex.get(weekId, teamId);
+        if (matchId == MatchIndex.NO_MATCH) {
+            String missingWeek = matchIndex.getMissingWeek(weekId);
+            if (missingWeek != null) {
+                throw new Exception("%s, roundDate: %s".formatted(missingWeek, roundDate));
             }
+            throw new Exception(("Could not find match id for teamId: %s, roundDate: %s, playerExtract: %s").formatted(teamId, roundDate, matchingPlayerExtract));
         }
-        throw new Exception(("Could not find match id for teamId: %s, roundDate: %s, playerExtract: %s").formatted(teamId, roundDate, matchingPlayerExtract));
+        return matchId;
     }
 
-    private Map<Integer, List<Match>> getWeekIdToMatchMap(int year) throws IOException {
-        List<Match> matchesForYear = readAllLines(String.format(MATCH_EXTRACT_FILE, year)).stream()
-                .map(line -> {
-                    String[] lineTokens = line.split(",");
-                    return new Match(Integer.parseInt(lineTokens[0]), Integer.parseInt(lineTokens[1]),
-                            Integer.parseInt(lineTokens[2]), Integer.parseInt(lineTokens[3]));
-                }).toList();
+    private MatchIndex getMatchIndex(int year, int seasonId, Collection<Integer> weekIds) throws IOException {
+        if (importDatabase != null) {
+            MatchIndex matchIndex = new MatchIndex(importDatabase.getMatches(seasonId), weekIds);
+            matchIndex.getMissingWeeks().forEach(logger::warn);
+            return matchIndex;
+        }
+        Path matchExtract = getFile(MATCH_EXTRACT_FILE, year);
+        Path weekExtract = getFile(WEEK_EXTRACT_FILE, year);
+        return referenceDataCache.get(year, "match-index", () -> {
+            MatchIndex matchIndex = new MatchIndex(readMatchExtract(matchExtract), weekIds);
+            matchIndex.getMissingWeeks().forEach(logger::warn);
+            return matchIndex;
+        }, matchExtract, weekExtract);
+    }
 
-        Map<Integer, List<Match>> weekIdToMatch = new HashMap<>();
-        for (Match match : matchesForYear) {
-            weekIdToMatch.computeIfAbsent(match.weekId, k -> new ArrayList<>()).add(match);
+    List<Match> readMatchExtract(Path matchExtract) throws IOException {
+        List<Match> matches = new ArrayList<>();
+        MappedCsvReader csv = MappedCsvReader.open(matchExtract);
+        while (csv.nextRecord()) {
+            matches.add(new Match(csv.nextInt(), csv.nextInt(), csv.nextInt(), csv.nextInt()));
         }
-        return weekIdToMatch;
+        return matches;
     }
 
-    private RoundPlayer getRoundPlayer(Row row) {
-        if (row.getCell(0) != null) {
-            String name = row.getCell(0).getStringCellValue();
+    RoundPlayer getRoundPlayer(SheetRow row) {
+        if (row.getCellType(0) != null) {
+            String name = row.getString(0);
             if (name != null && !name.equalsIgnoreCase("player 1") && !name.equalsIgnoreCase("player 2")) {
-                Cell cell1 = row.getCell(1);
-                if (cell1 != null && cell1.getCellType() == CellType.NUMERIC) {
-                    int handicap = (int) cell1.getNumericCellValue();
+                if (row.getCellType(1) == CellType.NUMERIC) {
+                    int handicap = (int) row.getNumber(1);
                     RoundPlayer roundPlayer = new RoundPlayer(name, handicap);
-                    Cell cellTeamIdOnRound = row.getCell(5);
-                    if (cellTeamIdOnRound != null && cellTeamIdOnRound.getCellType() == CellType.NUMERIC) {
-                        roundPlayer.setTeamIdForRound((int) cellTeamIdOnRound.getNumericCellValue());
+                    if (row.getCellType(5) == CellType.NUMERIC) {
+                        roundPlayer.setTeamIdForRound((int) row.getNumber(5));
                     }
                     return roundPlayer;
                 }
@@ -152,10 +336,104 @@ public class ImportRoundService extends ImportService {
         }
     }
 
+    /**
+     * Reads a sheet's cards on a parse thread, its result being the task itself to be resolved against the context.
+     */
+    private class RoundSheetTask implements WorkbookReader.SheetTask<RoundSheetTask> {
+        private final Date roundDate;
+        private final List<MatchPlayers> matchesForDate = new ArrayList<>();
+        private final ScoreStore cardScores;
+        private final List<RoundPlayer> awaitingStrokes = new ArrayList<>();
+        private final byte[] holeStrokes = new byte[ScoreStore.HOLES];
+        private MatchPlayers match = new MatchPlayers();
+        private int firstHole = 1;
+        private int rows;
+
+        RoundSheetTask(Date roundDate, boolean withScores) {
+            this.roundDate = roundDate;
+            this.cardScores = withScores ? new ScoreStore() : null;
+        }
+
+        @Override
+        public void visitRow(SheetRow row) {
+            rows++;
+            RoundPlayer roundPlayer = getRoundPlayer(row);
+            if (roundPlayer != null) {
+                match.playersInMatch.add(roundPlayer);
+                if (match.isRoundFull()) {
+                    matchesForDate.add(match);
+                    match = new MatchPlayers();
+                }
+                if (cardScores != null) {
+                    awaitingStrokes.add(roundPlayer);
+                }
+            } else if (cardScores != null && !awaitingStrokes.isEmpty()) {
+                visitScoreRow(row);
+            }
+        }
+
+        /**
+         * Below its player rows a card has a "Hole" row numbering the nine holes, then a row per player with a
+         * number under every hole: their strokes first, then the rows for points, which are skipped as the
+         * player's strokes have been taken by then.
+         */
+        private void visitScoreRow(SheetRow row) {
+            String label = row.getString(0);
+            if (label == null) {
+                return;
+            }
+            if (label.equalsIgnoreCase("hole") && row.getCellType(2) == CellType.NUMERIC) {
+                firstHole = (int) row.getNumber(2);
+                return;
+            }
+            for (Iterator<RoundPlayer> it = awaitingStrokes.iterator(); it.hasNext(); ) {
+                RoundPlayer player = it.next();
+                if (player.nameOnCard.equalsIgnoreCase(label.trim()) && readStrokes(row)) {
+                    player.scoreRound = cardScores.add(0, 0, firstHole, holeStrokes, 0);
+                    it.remove();
+                    return;
+                }
+            }
+        }
+
+        private boolean readStrokes(SheetRow row) {
+            for (int hole = 0; hole < ScoreStore.HOLES; hole++) {
+                double strokes = row.getNumber(2 + hole);
+                if (row.getCellType(2 + hole) != CellType.NUMERIC || strokes < 1 || strokes > Byte.MAX_VALUE) {
+                    return false;
+                }
+                holeStrokes[hole] = (byte) strokes;
+            }
+            return true;
+        }
+
+        @Override
+        public RoundSheetTask result() {
+            return this;
+        }
+
+        SheetRounds resolve(RoundContext rc, ImportProgress progress, ImportMetrics.Recorder recorder) {
+            SheetRounds sheetRounds = new SheetRounds(roundDate, getRounds(roundDate, matchesForDate, rc.playerNameIndex(),
+                    rc.matchIndex(), rc.weekDateToIdMap(), cardScores, recorder));
+            progress.rowsProcessed(rows);
+            progress.sheetDone();
+            return sheetRounds;
+        }
+    }
+
+    record SheetRounds(Date roundDate, SeasonRoundResult result) {}
+
+    /**
+     * What the players on a season's score cards are resolved against.
+     */
+    record RoundContext(PlayerNameIndex playerNameIndex, MatchIndex matchIndex, Map<Date, Integer> weekDateToIdMap) {}
+
     public static class RoundPlayer {
         private final String nameOnCard;
         private final int handicapOnCard;
         private int teamIdForRound;
+        // the player's strokes in the sheet's score store, -1 until read from the card
+        private int scoreRound = -1;
 
         public RoundPlayer(String nameOnCard, int handicapOnCard) {
             this.nameOnCard = nameOnCard;
@@ -192,6 +470,22 @@ public class ImportRoundService extends ImportService {
     public static class SeasonRoundResult {
         List<Round> rounds = new ArrayList<>();
         List<String> errors = new ArrayList<>();
+        ScoreStore scores;
+
+        public List<Round> getRounds() {
+            return rounds;
+        }
+
+        /**
+         * @return the strokes of the rounds whose cards had them, in round order, or null when scores were not read
+         */
+        public ScoreStore getScores() {
+            return scores;
+        }
+
+        public List<String> getErrors() {
+            return errors;
+        }
     }
 
     public record Round(int playerId, int matchId, int teamId, double handicap) {}
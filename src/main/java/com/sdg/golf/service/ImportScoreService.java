@@ -0,0 +1,82 @@
+package com.sdg.golf.service;
+
+import com.sdg.golf.service.ImportRoundService.RoundContext;
+import com.sdg.golf.service.ImportRoundService.SeasonRoundResult;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Imports the strokes on each hole from the score card sheets the round import reads, resolving the players and
+ * matches the same way and writing a row per hole of every round to score-yyyy-seasonId.txt (or the score table). The
+ * strokes are held in a {@link ScoreStore} until the whole season has resolved and then streamed out from it, and
+ * fed to the {@link HandicapService} to carry the rolling handicaps on through the season. The scores are committed
+ * only once the handicaps have been worked out, so an import whose handicaps fail writes no scores.
+ */
+@Service
+public class ImportScoreService extends ImportService {
+    private static final Logger logger = LoggerFactory.getLogger(ImportScoreService.class);
+
+    private final ImportRoundService importRoundService;
+    private final HandicapService handicapService;
+
+    @Autowired
+    public ImportScoreService(ImportRoundService importRoundService, HandicapService handicapService) {
+        this.importRoundService = importRoundService;
+        this.handicapService = handicapService;
+    }
+
+    public ScoreResult importScores(String fileName, int seasonId, int year) throws Exception {
+        return importScores(fileName, seasonId, year, ImportProgress.NONE);
+    }
+
+    public ScoreResult importScores(String fileName, int seasonId, int year, ImportProgress progress) throws Exception {
+        return importCoordinator.coalesce(getImportKey(ImportType.SCORES, fileName, seasonId, year),
+                () -> importScores(getWorkbook(fileName), seasonId, year, progress));
+    }
+
+    public ScoreResult importScores(WorkbookSource workbook, int seasonId, int year, ImportProgress progress) throws Exception {
+        return importCoordinator.withLocks(List.of(getFile(SCORES_IMPORT_FILE, year + "-" + seasonId)),
+                () -> writeScores(workbook, seasonId, year, progress));
+    }
+
+    private ScoreResult writeScores(WorkbookSource workbook, int seasonId, int year, ImportProgress progress) throws Exception {
+        ImportMetrics.Recorder recorder = importMetrics.start(ImportType.SCORES, year);
+        boolean success = false;
+        try {
+            RoundContext context = importRoundService.getRoundContext(year, seasonId);
+            SeasonRoundResult srr = importRoundService.getRounds(workbook, CompletableFuture.completedFuture(context),
+                    progress, recorder, true);
+            srr.errors.addAll(0, context.matchIndex().getErrors());
+            ScoreStore scores = srr.getScores() != null ? srr.getScores() : new ScoreStore(0);
+            if (scores.size() < srr.rounds.size()) {
+                logger.warn("{} of {} rounds have no strokes on their card", srr.rounds.size() - scores.size(), srr.rounds.size());
+            }
+            if (srr.errors.isEmpty()) {
+                try (RowSink sink = openRowSink(ImportDatabase.SCORE_TABLE, seasonId, getFile(SCORES_IMPORT_FILE, year + "-" + seasonId), "player_id,match_id,hole,strokes")) {
+                    scores.write(sink);
+                    // the scores are only committed once the handicaps are worked out, so a failed import leaves none behind
+                    HandicapService.HandicapResult handicaps = handicapService.seasonScored(year, seasonId, scores);
+                    sink.commit();
+                    recorder.written(sink);
+                    logger.info("Handicaps of {} players written for {} weeks of {}", handicaps.players(), handicaps.weeks(), year);
+                }
+            } else {
+                logger.error(String.join(System.lineSeparator(), srr.errors));
+            }
+            success = srr.errors.isEmpty();
+            return new ScoreResult(srr.rounds.size(), scores.size(), scores.size() * ScoreStore.HOLES, srr.errors);
+        } finally {
+            recorder.finished(success);
+        }
+    }
+
+    /**
+     * @param scoredRounds the rounds whose cards had strokes for every hole
+     */
+    public record ScoreResult(int rounds, int scoredRounds, int holes, List<String> errors) {}
+}
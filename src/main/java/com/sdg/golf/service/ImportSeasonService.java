@@ -0,0 +1,174 @@
+package com.sdg.golf.service;
+
+import com.sdg.golf.service.ImportRoundService.Match;
+import com.sdg.golf.service.ImportRoundService.Round;
+import com.sdg.golf.service.ImportRoundService.RoundContext;
+import com.sdg.golf.service.ImportRoundService.SeasonRoundResult;
+import com.sdg.golf.service.ImportWeekMatchService.WeeklyMatchups;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Imports a whole season in one go: the weeks, matches and rounds that the separate imports produce a stage at a
+ * time, with a hand built extract file between each. Week and match ids are assigned in memory, counting up from
+ * the first ids given in week date and tee time order, and written with the rows. The matchup workbook is read on
+ * one thread while the score card sheets are parsed on the others; the sheets are resolved to rounds as soon as the
+ * weeks and matches are known. Nothing is written unless the whole season resolves.
+ */
+@Service
+public class ImportSeasonService extends ImportService {
+    private static final Logger logger = LoggerFactory.getLogger(ImportSeasonService.class);
+
+    private final ImportWeekMatchService importWeekMatchService;
+    private final ImportRoundService importRoundService;
+
+    @Autowired
+    public ImportSeasonService(ImportWeekMatchService importWeekMatchService, ImportRoundService importRoundService) {
+        this.importWeekMatchService = importWeekMatchService;
+        this.importRoundService = importRoundService;
+    }
+
+    public SeasonResult importSeason(String matchupFileName, String scoreCardFileName, int seasonId, int year,
+                                     int firstWeekId, int firstMatchId) throws Exception {
+        return importSeason(matchupFileName, scoreCardFileName, seasonId, year, firstWeekId, firstMatchId, ImportProgress.NONE);
+    }
+
+    public SeasonResult importSeason(String matchupFileName, String scoreCardFileName, int seasonId, int year,
+                                     int firstWeekId, int firstMatchId, ImportProgress progress) throws Exception {
+        List<Object> key = getImportKey(ImportType.SEASON, matchupFileName, Path.of(scoreCardFileName).toAbsolutePath().normalize(),
+                seasonId, year, firstWeekId, firstMatchId);
+        return importCoordinator.coalesce(key, () -> importSeason(getWorkbook(matchupFileName), getWorkbook(scoreCardFileName),
+                seasonId, year, firstWeekId, firstMatchId, progress));
+    }
+
+    /**
+     * Holds the locks of the week, match and round files the season is written to.
+     */
+    public SeasonResult importSeason(WorkbookSource matchupWorkbook, WorkbookSource scoreCardWorkbook, int seasonId, int year,
+                                     int firstWeekId, int firstMatchId, ImportProgress progress) throws Exception {
+        List<Path> outputs = List.of(getFile(WEEKS_IMPORT_FILE, year + "-" + seasonId), getFile(MATCH_IMPORT_FILE, year),
+                getFile(ROUNDS_IMPORT_FILE, year));
+        return importCoordinator.withLocks(outputs, () -> writeSeason(matchupWorkbook, scoreCardWorkbook, seasonId, year,
+                firstWeekId, firstMatchId, progress));
+    }
+
+    private SeasonResult writeSeason(WorkbookSource matchupWorkbook, WorkbookSource scoreCardWorkbook, int seasonId, int year,
+                                     int firstWeekId, int firstMatchId, ImportProgress progress) throws Exception {
+        ImportMetrics.Recorder recorder = importMetrics.start(ImportType.SEASON, year);
+        boolean success = false;
+        try {
+            Map<String, Integer> nameToIdMap = getNameToIdMap(year);
+            PlayerNameIndex playerNameIndex = getPlayerNameIndex(year);
+
+            SeasonSchedule schedule;
+            SeasonRoundResult srr;
+            try (ExecutorService matchupExecutor = Executors.newSingleThreadExecutor()) {
+                CompletableFuture<SeasonSchedule> scheduleFuture = CompletableFuture.supplyAsync(() -> {
+                    try {
+                        WeeklyMatchups weeklyMatchups = importWeekMatchService.readWeeklyMatchups(matchupWorkbook, recorder);
+                        progress.sheetDone();
+                        return getSchedule(weeklyMatchups, nameToIdMap, firstWeekId, firstMatchId);
+                    } catch (IOException e) {
+                        throw new CompletionException(e);
+                    }
+                }, matchupExecutor);
+                CompletableFuture<RoundContext> context = scheduleFuture.thenApply(s -> new RoundContext(playerNameIndex, s.matchIndex(), s.weekDateToIdMap()));
+                srr = importRoundService.getRounds(scoreCardWorkbook, context, progress, recorder);
+                schedule = join(scheduleFuture);
+            }
+            srr.errors.addAll(0, schedule.errors());
+            srr.errors.addAll(0, schedule.matchIndex().getErrors());
+
+            if (srr.errors.isEmpty()) {
+                write(schedule, srr.rounds, seasonId, year, recorder);
+            } else {
+                logger.error(String.join(System.lineSeparator(), srr.errors));
+            }
+            success = srr.errors.isEmpty();
+            return new SeasonResult(schedule.weekDateToIdMap().size(), schedule.matches().size(), srr.rounds.size(), srr.errors);
+        } finally {
+            recorder.finished(success);
+        }
+    }
+
+    /**
+     * Numbers the weeks in date order and each week's matches in the order their tee times are listed on the sheet,
+     * the order the staged matchup import writes them in.
+     */
+    private SeasonSchedule getSchedule(WeeklyMatchups weeklyMatchups, Map<String, Integer> nameToIdMap, int firstWeekId, int firstMatchId) {
+        Map<Date, Integer> weekDateToIdMap = new LinkedHashMap<>();
+        for (Date date : weeklyMatchups.dates()) {
+            weekDateToIdMap.putIfAbsent(date, firstWeekId + weekDateToIdMap.size());
+        }
+        List<Match> matches = new ArrayList<>();
+        List<String> errors = new ArrayList<>();
+        for (Map.Entry<Date, Integer> week : weekDateToIdMap.entrySet()) {
+            Map<String, TwoTeam> teeTimes = weeklyMatchups.matchupsByDate().getOrDefault(week.getKey(), Map.of());
+            for (TwoTeam twoTeam : teeTimes.values()) {
+                Integer team1Id = nameToIdMap.get(twoTeam.getTeam1());
+                Integer team2Id = nameToIdMap.get(twoTeam.getTeam2());
+                if (team1Id == null || team2Id == null) {
+                    errors.add("No team on the team file for %s or %s in week %s".formatted(twoTeam.getTeam1(), twoTeam.getTeam2(), week.getValue()));
+                } else {
+                    matches.add(new Match(firstMatchId + matches.size(), week.getValue(), team1Id, team2Id));
+                }
+            }
+        }
+        MatchIndex matchIndex = new MatchIndex(matches, weekDateToIdMap.values());
+        matchIndex.getMissingWeeks().forEach(logger::warn);
+        return new SeasonSchedule(weekDateToIdMap, matches, matchIndex, errors);
+    }
+
+    private void write(SeasonSchedule schedule, List<Round> rounds, int seasonId, int year, ImportMetrics.Recorder recorder) throws IOException {
+        try (RowSink sink = openRowSink(ImportDatabase.WEEK_TABLE, seasonId, getFile(WEEKS_IMPORT_FILE, year + "-" + seasonId), "id,name,date,season_id")) {
+            int ctr = 1;
+            for (Map.Entry<Date, Integer> week : schedule.weekDateToIdMap().entrySet()) {
+                sink.field(week.getValue()).field("Week " + ctr++).field(getLocalDate(week.getKey())).field(seasonId).endRow();
+            }
+            sink.commit();
+            recorder.written(sink);
+        }
+        try (RowSink sink = openRowSink(ImportDatabase.MATCH_TABLE, seasonId, getFile(MATCH_IMPORT_FILE, year), "id,week_id,team_1,team_2")) {
+            for (Match match : schedule.matches()) {
+                sink.field(match.id()).field(match.weekId()).field(match.team1Id()).field(match.team2Id()).endRow();
+            }
+            sink.commit();
+            recorder.written(sink);
+        }
+        try (RowSink sink = openRowSink(ImportDatabase.ROUND_TABLE, seasonId, getFile(ROUNDS_IMPORT_FILE, year), "player_id,match_id,team_id,handicap")) {
+            for (Round round : rounds) {
+                sink.field(round.playerId()).field(round.matchId()).field(round.teamId()).field(round.handicap()).endRow();
+            }
+            sink.commit();
+            recorder.written(sink);
+        }
+    }
+
+    private static <T> T join(CompletableFuture<T> future) throws IOException {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof IOException ioException) {
+                throw ioException;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * @param weekDateToIdMap in week date order
+     */
+    private record SeasonSchedule(Map<Date, Integer> weekDateToIdMap, List<Match> matches, MatchIndex matchIndex, List<String> errors) {}
+
+    public record SeasonResult(int weeks, int matches, int rounds, List<String> errors) {}
+}
@@ -1,32 +1,43 @@
 package com.sdg.golf.service;
 
 import io.micrometer.common.util.StringUtils;
-import org.apache.poi.ss.usermodel.*;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.apache.poi.ss.usermodel.CellType;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.util.unit.DataSize;
 
-import java.io.FileInputStream;
 import java.io.FileNotFoundException;
-import java.io.FileOutputStream;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.Paths;
-import java.text.SimpleDateFormat;
 import java.time.LocalDate;
 import java.util.*;
+import java.util.function.Consumer;
 
 public abstract class ImportService {
     private static final Logger logger = LoggerFactory.getLogger(ImportService.class);
     static final String WEEKLY_MATCHUPS_SHEET_NAME ="Weekly Matchups";
-    static final String WEEKS_IMPORT_FILE = "files/week-%s.txt";
-    static final String MATCH_IMPORT_FILE = "files/match-%s.txt";
-    static final String TEAM_IMPORT_FILE = "files/team-%s.txt";
-    static final String ROUNDS_IMPORT_FILE = "files/round-%s.txt";
-    static final String WEEK_EXTRACT_FILE = "files/week-extract-%s.txt";
-    static final String PLAYER_EXTRACT_FILE = "files/player-extract-%s.txt";
-    static final String MATCH_EXTRACT_FILE = "files/match-extract-%s.txt";
+    static final String WEEKS_IMPORT_FILE = "week-%s.txt";
+    static final String MATCH_IMPORT_FILE = "match-%s.txt";
+    static final String TEAM_IMPORT_FILE = "team-%s.txt";
+    static final String ROUNDS_IMPORT_FILE = "round-%s.txt";
+    static final String SCORES_IMPORT_FILE = "score-%s.txt";
+    static final String HANDICAP_FILE = "handicap-%s.txt";
+    static final String ROUNDS_CHECKPOINT_FILE = "round-checkpoint-%s.txt";
+    static final String WEEK_EXTRACT_FILE = "week-extract-%s.txt";
+    static final String PLAYER_EXTRACT_FILE = "player-extract-%s.txt";
+    static final String MATCH_EXTRACT_FILE = "match-extract-%s.txt";
+    Path fileRoot = Path.of("files");
+    WorkbookReader workbookReader = new StreamingWorkbookReader();
+    Map<String, String> playerAliases = Map.of("baby", "Brien");
+    ReferenceDataCache referenceDataCache = new ReferenceDataCache(32);
+    SheetSnapshotCache sheetSnapshotCache = new SheetSnapshotCache(DataSize.ofMegabytes(16));
+    ImportMetrics importMetrics = new ImportMetrics(null);
+    ImportCoordinator importCoordinator = new ImportCoordinator(64);
+    SheetParseExecutor sheetParseExecutor = new SheetParseExecutor();
+    ImportDatabase importDatabase;
     public static class TwoTeam {
         private String team1;
         private String team2;
@@ -49,6 +60,13 @@ public abstract class ImportService {
         }
     }
 
+    /**
+     * @return the extract or import file for the year (or year-seasonId) under {@code import.file-root}
+     */
+    Path getFile(String fileNamePattern, Object yearOrYearSeason) {
+        return fileRoot.resolve(String.format(fileNamePattern, yearOrYearSeason));
+    }
+
     Path getPath(String fileName) throws FileNotFoundException {
         var path = Path.of(fileName);
         if (!Files.exists(path)) {
@@ -57,27 +75,57 @@ public abstract class ImportService {
         return path;
     }
 
-    List<Date> getDates(Path path) throws IOException {
+    /**
+     * @return the workbook file, which must already be on the server
+     */
+    WorkbookSource getWorkbook(String fileName) throws FileNotFoundException {
+        return WorkbookSource.of(getPath(fileName));
+    }
+
+    /**
+     * @return the key of an import of the workbook file into this file root, the same for every way of naming the file
+     */
+    List<Object> getImportKey(ImportType type, String fileName, Object... options) {
+        List<Object> key = new ArrayList<>();
+        key.add(type);
+        key.add(fileRoot.toAbsolutePath().normalize());
+        key.add(Path.of(fileName).toAbsolutePath().normalize());
+        key.addAll(Arrays.asList(options));
+        return key;
+    }
+
+    List<Date> getDates(WorkbookSource workbook, WorkbookReader.ReadListener listener) throws IOException {
         List<Date> dates = new ArrayList<>();
-        try (FileInputStream fis = new FileInputStream(path.toFile()); Workbook workbook = new XSSFWorkbook(fis)) {
-            Sheet sheet = workbook.getSheet(WEEKLY_MATCHUPS_SHEET_NAME);
-            for (Row row : sheet) {
-                Date date = getDateOfTeeTimes(row);
-                if (date != null) {
-                    dates.add(date);
-                }
+        readSheet(workbook, WEEKLY_MATCHUPS_SHEET_NAME, row -> {
+            Date date = getDateOfTeeTimes(row);
+            if (date != null) {
+                dates.add(date);
             }
-        }
+        }, listener);
 
         logger.debug("Found {} dates", dates.size());
         Collections.sort(dates);
         return dates;
     }
 
-    Date getDateOfTeeTimes(Row row) {
-        Cell cell = row.getCell(0);
-        if (cell != null && Objects.requireNonNull(cell.getCellType()) == CellType.NUMERIC) {
-            Date date = cell.getDateCellValue();
+    /**
+     * Passes each row of the sheet to the consumer. A workbook file's sheet is visited from its snapshot in the
+     * {@link SheetSnapshotCache}, so the workbook is only opened and parsed when the file has changed since it was
+     * last read; an uploaded workbook is read once anyway and goes straight to the reader.
+     */
+    void readSheet(WorkbookSource workbook, String sheetName, Consumer<SheetRow> rowConsumer,
+                   WorkbookReader.ReadListener listener) throws IOException {
+        if (workbook instanceof WorkbookSource.FileSource file) {
+            sheetSnapshotCache.get(file.path(), sheetName, () -> SheetSnapshot.read(workbookReader, workbook, sheetName, listener))
+                    .visitRows(rowConsumer);
+        } else {
+            workbookReader.read(workbook, SheetVisitor.forSheet(sheetName, rowConsumer), listener);
+        }
+    }
+
+    Date getDateOfTeeTimes(SheetRow row) {
+        if (row.getCellType(0) == CellType.NUMERIC) {
+            Date date = row.getDate(0);
             if (dateOfSeason(date)) {
                 return date;
             }
@@ -86,33 +134,59 @@ public abstract class ImportService {
     }
 
     void writeStringsToFile(Path outPath, String header, List<String> strs) throws IOException {
-        String newLine = "";
-        try (FileOutputStream fos = new FileOutputStream(outPath.toFile())) {
-            if (!header.isEmpty()) {
-                fos.write(header.getBytes());
-                newLine = System.lineSeparator();
-            }
+        try (RowSink sink = openRowSink(outPath, header)) {
             for (String str: strs) {
-                if (newLine.isEmpty()) {
-                    newLine = System.lineSeparator();
-                } else {
-                    fos.write(newLine.getBytes());
-                }
-                fos.write(str.getBytes());
+                sink.row(str);
             }
+            sink.commit();
         }
     }
 
-    Map<Date, Integer> getWeekDateToIdMap(int year) throws Exception {
-        List<String> lines = readAllLines(String.format(WEEK_EXTRACT_FILE, year + ""));
-        Map<Date, Integer> map = new HashMap<>();
-        for (String line : lines) {
-            String[] weekExtractLine = line.split(",");
-            Integer weekId = Integer.valueOf(weekExtractLine[0]);
-            Date weekDate = new SimpleDateFormat("yyyy-MM-dd").parse(weekExtractLine[1]);
-            map.put(weekDate, weekId);
-        }
-        return map;
+    RowSink openRowSink(Path outPath, String header) throws IOException {
+        return new AtomicFileRowSink(outPath, header);
+    }
+
+    /**
+     * @return a sink replacing the season's rows of the table when an {@link ImportDatabase} is configured, otherwise
+     * one writing the import file with the column names as its header
+     */
+    RowSink openRowSink(String table, int seasonId, Path outPath, String columns) throws IOException {
+        return importDatabase != null ? importDatabase.openSink(table, seasonId, columns) : openRowSink(outPath, columns);
+    }
+
+    /**
+     * @return the ids the database generated for the season's weeks, or the week-extract file without a database
+     */
+    Map<Date, Integer> getWeekDateToIdMap(int year, int seasonId) throws IOException {
+        return importDatabase != null ? importDatabase.getWeekDateToIdMap(seasonId) : getWeekDateToIdMap(year);
+    }
+
+    Map<Date, Integer> getWeekDateToIdMap(int year) throws IOException {
+        Path weekExtract = getFile(WEEK_EXTRACT_FILE, year);
+        return referenceDataCache.get(year, "week-date-to-id", () -> {
+            Map<Date, Integer> map = new HashMap<>();
+            MappedCsvReader csv = MappedCsvReader.open(weekExtract);
+            while (csv.nextRecord()) {
+                int weekId = csv.nextInt();
+                map.put(csv.nextDate(), weekId);
+            }
+            return Collections.unmodifiableMap(map);
+        }, weekExtract);
+    }
+
+    Map<String, Integer> getNameToIdMap(int year) throws IOException {
+        Path teamFile = getFile(TEAM_IMPORT_FILE, year);
+        return referenceDataCache.get(year, "team-name-to-id", () -> {
+            Map<String, Integer> map = new HashMap<>();
+            MappedCsvReader csv = MappedCsvReader.open(teamFile);
+            while (csv.nextRecord()) {
+                if (!csv.lineEquals("id,name")) {
+                    int teamId = csv.nextInt();
+                    map.put(csv.nextString(), teamId);
+                }
+            }
+            return Collections.unmodifiableMap(map);
+        }, teamFile);
     }
 
     boolean dateOfSeason(Date date) {
@@ -123,51 +197,106 @@ public abstract class ImportService {
         return LocalDate.ofInstant(date.toInstant(), java.time.ZoneId.systemDefault());
     }
 
-    List<String> readAllLines(String filePath) throws IOException {
-        return Files.readAllLines(Paths.get(filePath));
-    }
     public record TeamNameAndTime(String teamName, String teamTime) {}
 
 
     List<PlayerExtract> getPlayerExtract(int year) throws IOException {
-        List<String> lines = readAllLines(String.format(PLAYER_EXTRACT_FILE, year));
-        return lines.stream().map(this::createPlayerExtract).toList();
+        Path playerExtract = getFile(PLAYER_EXTRACT_FILE, year);
+        return referenceDataCache.get(year, "player-extract", () -> readPlayerExtract(playerExtract), playerExtract);
     }
 
-    private PlayerExtract createPlayerExtract(String line) {
-        String[] lineTokens = line.split(",");
-        return new PlayerExtract(Integer.parseInt(lineTokens[0]), lineTokens[1], lineTokens[2], lineTokens[3],
-                Double.parseDouble(lineTokens[4]), lineTokens[5], Integer.parseInt(lineTokens[6]));
+    List<PlayerExtract> readPlayerExtract(Path playerExtract) throws IOException {
+        List<PlayerExtract> players = new ArrayList<>();
+        MappedCsvReader csv = MappedCsvReader.open(playerExtract);
+        while (csv.nextRecord()) {
+            players.add(new PlayerExtract(csv.nextInt(), csv.nextString(), csv.nextString(), csv.nextString(),
+                    csv.nextDouble(), csv.nextString(), csv.nextInt()));
+        }
+        return List.copyOf(players);
     }
 
-    Map<String, List<PlayerExtract>> createPlayerExtractMap(List<PlayerExtract> playerExtracts) {
-        Map<String, List<PlayerExtract>> map = new HashMap<>();
-        for (PlayerExtract playerExtract : playerExtracts) {
-            map.computeIfAbsent(playerExtract.firstName().toLowerCase(), k -> new ArrayList<>()).add(playerExtract);
+    /**
+     * The index is cached with the extract it was built from, so card names resolved by one import are already
+     * memoized for the next. With a database it is built from the player table on each import.
+     */
+    PlayerNameIndex getPlayerNameIndex(int year) throws IOException {
+        if (importDatabase != null) {
+            PlayerNameIndex playerNameIndex = new PlayerNameIndex(importDatabase.getPlayers(), playerAliases);
+            playerNameIndex.getAmbiguities().forEach(ambiguity -> logger.warn("{} (player table)", ambiguity));
+            return playerNameIndex;
         }
-        return map;
+        Path playerExtract = getFile(PLAYER_EXTRACT_FILE, year);
+        return referenceDataCache.get(year, "player-name-index", () -> {
+            PlayerNameIndex playerNameIndex = new PlayerNameIndex(getPlayerExtract(year), playerAliases);
+            playerNameIndex.getAmbiguities().forEach(ambiguity -> logger.warn("{} ({})", ambiguity, playerExtract));
+            return playerNameIndex;
+        }, playerExtract);
     }
 
-    public PlayerExtract getPlayerExtract(String[] playerNameToken, Map<String, List<PlayerExtract>> playerExtractMap) throws Exception {
-        String fname = filterName(playerNameToken[0]);
-        List<PlayerExtract> playerRowsOnExtract = playerExtractMap.get(fname.toLowerCase());
+    /**
+     * Sets this service up like the other but reading and writing under the league's own file root with its own
+     * reference cache. Only the default league loads into the database.
+     */
+    void configureForLeague(ImportService defaults, Path leagueFileRoot, ReferenceDataCache leagueReferenceDataCache) {
+        fileRoot = leagueFileRoot;
+        referenceDataCache = leagueReferenceDataCache;
+        workbookReader = defaults.workbookReader;
+        sheetSnapshotCache = defaults.sheetSnapshotCache;
+        playerAliases = defaults.playerAliases;
+        importMetrics = defaults.importMetrics;
+        importCoordinator = defaults.importCoordinator;
+        sheetParseExecutor = defaults.sheetParseExecutor;
+    }
 
-        if (playerRowsOnExtract != null && !playerRowsOnExtract.isEmpty()) {
-            if (playerRowsOnExtract.size() > 1 && playerNameToken.length == 2) {
-                for (PlayerExtract playerRow : playerRowsOnExtract) {
-                    if (playerNameToken[1].equalsIgnoreCase(playerRow.lastName.substring(0, 1))) {
-                        return playerRow;
-                    }
-                }
-            } else {
-                return playerRowsOnExtract.getFirst();
+    @Value("${import.file-root:files}")
+    void setFileRoot(String fileRoot) {
+        this.fileRoot = Path.of(fileRoot);
+    }
+
+    @Autowired
+    void setReferenceDataCache(ReferenceDataCache referenceDataCache) {
+        this.referenceDataCache = referenceDataCache;
+    }
+
+    @Autowired
+    void setSheetSnapshotCache(SheetSnapshotCache sheetSnapshotCache) {
+        this.sheetSnapshotCache = sheetSnapshotCache;
+    }
+
+    @Autowired
+    void setImportMetrics(ImportMetrics importMetrics) {
+        this.importMetrics = importMetrics;
+    }
+
+    @Autowired
+    void setImportCoordinator(ImportCoordinator importCoordinator) {
+        this.importCoordinator = importCoordinator;
+    }
+
+    @Autowired
+    void setSheetParseExecutor(SheetParseExecutor sheetParseExecutor) {
+        this.sheetParseExecutor = sheetParseExecutor;
+    }
+
+    @Autowired(required = false)
+    void setImportDatabase(ImportDatabase importDatabase) {
+        this.importDatabase = importDatabase;
+    }
+
+    /**
+     * @param aliases comma separated alias=firstName pairs, the alias being the first name written on score cards
+     */
+    @Value("${import.player-aliases:baby=Brien}")
+    void setPlayerAliases(String aliases) {
+        Map<String, String> map = new HashMap<>();
+        for (String alias : aliases.split(",")) {
+            String[] aliasTokens = alias.split("=");
+            if (aliasTokens.length == 2) {
+                map.put(aliasTokens[0].trim(), aliasTokens[1].trim());
             }
         }
-        throw new Exception("No player on player extract file for %s".formatted(fname));
+        playerAliases = map;
     }
 
-    private String filterName(String fname) {
-        return "baby".equalsIgnoreCase(fname) ? "Brien" : fname;
-    }
     public record PlayerExtract(int playerId, String firstName, String lastName, String email, double handicap, String phone, int teamId) {}
 }
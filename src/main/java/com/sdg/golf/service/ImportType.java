@@ -0,0 +1,3 @@
+package com.sdg.golf.service;
+
+public enum ImportType { WEEKS, MATCHUPS, ROUNDS, SCORES, SEASON }
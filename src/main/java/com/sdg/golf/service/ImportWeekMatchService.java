@@ -1,111 +1,261 @@
 package com.sdg.golf.service;
 
-import org.apache.poi.ss.usermodel.*;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.apache.poi.ss.usermodel.CellType;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.lang.NonNull;
 import org.springframework.stereotype.Service;
 
-import java.io.FileInputStream;
 import java.io.IOException;
 import java.nio.file.Path;
 import java.text.SimpleDateFormat;
 import java.util.*;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
 
 @Service
 public class ImportWeekMatchService extends ImportService {
     private static final Logger logger = LoggerFactory.getLogger(ImportWeekMatchService.class);
     public void importMatchups(String fileName, int seasonId, int year) throws Exception {
-        Map<String, Integer> nameToIdMap = getNameToIdMap(year);
-        Map<Date, Integer> weekDateToIdMap = getWeekDateToIdMap(year);
-        Map<Integer, Map<String, TwoTeam>> matchsKeyedByWeek = getTeeTimeMatchs(getPath(fileName), weekDateToIdMap);
-        String header = "week_id,team_1,team_2";
-        String outFileName = String.format(MATCH_IMPORT_FILE, year + "");
-        List<String> matchTableRows = new ArrayList<>();
-        for (Integer weekId : matchsKeyedByWeek.keySet()) {
-            Map<String, TwoTeam> matchupTeeTimesMap = matchsKeyedByWeek.get(weekId);
-            for (TwoTeam twoTeam: matchupTeeTimesMap.values()) {
-                matchTableRows.add(weekId + "," + nameToIdMap.get(twoTeam.getTeam1()) + "," + nameToIdMap.get(twoTeam.getTeam2()));
-            }
+        importMatchups(fileName, seasonId, year, ImportProgress.NONE);
+    }
+
+    public void importMatchups(String fileName, int seasonId, int year, ImportProgress progress) throws Exception {
+        importCoordinator.coalesce(getImportKey(ImportType.MATCHUPS, fileName, seasonId, year), () -> {
+            importMatchups(getWorkbook(fileName), seasonId, year, progress);
+            return null;
+        });
+    }
+
+    public void importMatchups(WorkbookSource workbook, int seasonId, int year, ImportProgress progress) throws Exception {
+        importCoordinator.withLocks(List.of(getFile(MATCH_IMPORT_FILE, year)), () -> {
+            writeMatchups(workbook, seasonId, year, progress);
+            return null;
+        });
+    }
 
+    private void writeMatchups(WorkbookSource workbook, int seasonId, int year, ImportProgress progress) throws Exception {
+        ImportMetrics.Recorder recorder = importMetrics.start(ImportType.MATCHUPS, year);
+        boolean success = false;
+        try {
+            Map<String, Integer> nameToIdMap = getNameToIdMap(year);
+            Map<Date, Integer> weekDateToIdMap = getWeekDateToIdMap(year, seasonId);
+            String header = "week_id,team_1,team_2";
+            Path outFile = getFile(MATCH_IMPORT_FILE, year);
+            try (RowSink sink = openRowSink(ImportDatabase.MATCH_TABLE, seasonId, outFile, header)) {
+                // each week is resolved and written on the writer thread, in sheet order, while the sheet goes on being read
+                List<CompletableFuture<Void>> weeksWritten = new ArrayList<>();
+                try (ExecutorService writer = Executors.newSingleThreadExecutor()) {
+                    readTeeTimes(workbook, recorder, week -> weeksWritten.add(CompletableFuture.runAsync(() -> {
+                        try {
+                            writeWeekMatchups(week, weekDateToIdMap.get(week.date()), nameToIdMap, sink);
+                        } catch (IOException e) {
+                            throw new CompletionException(e);
+                        }
+                    }, writer)));
+                    progress.sheetDone();
+                    join(CompletableFuture.allOf(weeksWritten.toArray(CompletableFuture[]::new)));
+                }
+                sink.commit();
+                recorder.written(sink);
+                logger.debug("output {} match rows to {}", sink.getRowsWritten(), importDatabase != null ? ImportDatabase.MATCH_TABLE : outFile);
+                progress.rowsProcessed((int) sink.getRowsWritten());
+            }
+            success = true;
+        } finally {
+            recorder.finished(success);
+        }
+        if (importDatabase == null) {
+            logger.warn("**** ATTENTION: AFTER LOADING THE FILE THIS PROCESS CREATES TO THE MATCH TABLE, " +
+                    "A MATCH-EXTRACT-YYYY.txt) IS NEEDED FOR THE IMPORT OF ROUNDS PROCESS WHERE THE EXTRACT IS" +
+                    "AN ACCUMULATION OF THE WEEK TABLE DATA CREATED BY THIS METHOD");
         }
-        logger.debug("output to {}, header {}, matchTableRows {}", outFileName, header, matchTableRows);
-        writeStringsToFile(Path.of(outFileName), header, matchTableRows);
-        logger.warn("**** ATTENTION: AFTER LOADING THE FILE THIS PROCESS CREATES TO THE MATCH TABLE, " +
-                "A MATCH-EXTRACT-YYYY.txt) IS NEEDED FOR THE IMPORT OF ROUNDS PROCESS WHERE THE EXTRACT IS" +
-                "AN ACCUMULATION OF THE WEEK TABLE DATA CREATED BY THIS METHOD");
     }
 
     public void importWeeks(String fileName, int seasonId, int year) throws IOException {
-        logger.debug("Processing file: {} for seasonId: {}", fileName, seasonId);
-        AtomicInteger ctr = new AtomicInteger(1);
-        List<String> rowsForWeeksTable = getDates(getPath(fileName)).stream().map(d -> "Week " + ctr.getAndIncrement() + "," + new SimpleDateFormat("yyyy-MM-dd").format(d) + "," + seasonId).toList();
-        String outFileName = String.format(WEEKS_IMPORT_FILE, year + "-" + seasonId);
-        String header = "name,date,season_id";
-        logger.debug("output to {}, header {}, rowsForWeeksTable {}", outFileName, header, rowsForWeeksTable);
-        writeStringsToFile(Path.of(outFileName), header, rowsForWeeksTable);
-        logger.warn("**** ATTENTION: AFTER LOADING THE FILE THIS PROCESS CREATES TO THE WEEK TABLE, " +
-                "A DATE TO WEEK_ID FILE (WEEK-EXTRACT-YYYY.txt) IS NEEDED FOR THE IMPORT OF MATCH PROCESS");
+        importWeeks(fileName, seasonId, year, ImportProgress.NONE);
+    }
+
+    public void importWeeks(String fileName, int seasonId, int year, ImportProgress progress) throws IOException {
+        importCoordinator.coalesce(getImportKey(ImportType.WEEKS, fileName, seasonId, year), () -> {
+            importWeeks(getWorkbook(fileName), seasonId, year, progress);
+            return null;
+        });
     }
 
-    @NonNull
-    private Map<String, Integer> getNameToIdMap(int year) throws IOException {
-        Map<String, Integer> map = new HashMap<>();
-        List<String> lines = readAllLines(String.format(TEAM_IMPORT_FILE, year + ""));
-        for (String teamLine: lines) {
-            if (!teamLine.equals("id,name")) {
-                String[] teamLineTokens = teamLine.split(",");
-                map.put(teamLineTokens[1], Integer.parseInt(teamLineTokens[0]));
+    public void importWeeks(WorkbookSource workbook, int seasonId, int year, ImportProgress progress) throws IOException {
+        importCoordinator.withLocks(List.of(getFile(WEEKS_IMPORT_FILE, year + "-" + seasonId)), () -> {
+            writeWeeks(workbook, seasonId, year, progress);
+            return null;
+        });
+    }
+
+    private void writeWeeks(WorkbookSource workbook, int seasonId, int year, ImportProgress progress) throws IOException {
+        logger.debug("Processing file: {} for seasonId: {}", workbook.name(), seasonId);
+        ImportMetrics.Recorder recorder = importMetrics.start(ImportType.WEEKS, year);
+        boolean success = false;
+        try {
+            List<Date> dates = getDates(workbook, recorder);
+            progress.sheetDone();
+            Path outFile = getFile(WEEKS_IMPORT_FILE, year + "-" + seasonId);
+            String header = "name,date,season_id";
+            try (RowSink sink = openRowSink(ImportDatabase.WEEK_TABLE, seasonId, outFile, header)) {
+                int ctr = 1;
+                for (Date date : dates) {
+                    sink.field("Week " + ctr++).field(getLocalDate(date)).field(seasonId).endRow();
+                }
+                sink.commit();
+                recorder.written(sink);
+                logger.debug("output {} week rows to {}", sink.getRowsWritten(), importDatabase != null ? ImportDatabase.WEEK_TABLE : outFile);
+                progress.rowsProcessed((int) sink.getRowsWritten());
             }
+            success = true;
+        } finally {
+            recorder.finished(success);
+        }
+        if (importDatabase == null) {
+            logger.warn("**** ATTENTION: AFTER LOADING THE FILE THIS PROCESS CREATES TO THE WEEK TABLE, " +
+                    "A DATE TO WEEK_ID FILE (WEEK-EXTRACT-YYYY.txt) IS NEEDED FOR THE IMPORT OF MATCH PROCESS");
         }
-        return map;
     }
 
-    @NonNull
-    private Map<Integer, Map<String, TwoTeam>> getTeeTimeMatchs(Path path, Map<Date, Integer> weekDateToIdMap) throws IOException {
-        Map<Integer, Map<String, TwoTeam>> map = new HashMap<>();
-        int EXPECTED_NBR_TEE_TIMES = 6;
-        try (FileInputStream fis = new FileInputStream(path.toFile()); Workbook workbook = new XSSFWorkbook(fis)) {
-            Sheet sheet = workbook.getSheet(WEEKLY_MATCHUPS_SHEET_NAME);
-            Map<String, TwoTeam> weekMap = new HashMap<>();
-            Integer weekId = null;
-            for (Row row : sheet) {
-                Date weekDate = getDateOfTeeTimes(row);
-                if (weekDate != null) {
-                    weekId = weekDateToIdMap.get(weekDate);
+    /**
+     * Resolves the teams at each of the week's tee times and writes a match for each, along with the match to
+     * {@code matches} (or null when the week or a team did not resolve).
+     */
+    private void writeWeekMatchups(WeekTeeTimes week, Integer weekId, Map<String, Integer> nameToIdMap, RowSink sink) throws IOException {
+        for (TwoTeam twoTeam : week.teeTimes().values()) {
+            sink.field(weekId).field(nameToIdMap.get(twoTeam.getTeam1())).field(nameToIdMap.get(twoTeam.getTeam2())).endRow();
+        }
+    }
+
+    /**
+     * Reads the week dates and the teams paired at each week's tee times in one pass over the Weekly Matchups sheet.
+     * A week listed in more than one block under the same date gets the tee times of all of them; a week handed off
+     * more than once, its later blocks having tee times of their own, is merged back into one.
+     */
+    WeeklyMatchups readWeeklyMatchups(WorkbookSource workbook, WorkbookReader.ReadListener listener) throws IOException {
+        Map<Date, Map<String, TwoTeam>> matchupsByDate = new LinkedHashMap<>();
+        List<Date> dates = readTeeTimes(workbook, listener, week -> {
+            Map<String, TwoTeam> teeTimes = matchupsByDate.computeIfAbsent(week.date(), date -> new LinkedHashMap<>());
+            week.teeTimes().forEach((teeTime, twoTeam) -> {
+                TwoTeam listed = teeTimes.putIfAbsent(teeTime, twoTeam);
+                if (listed != null) {
+                    listed.addTeam(twoTeam.getTeam1());
+                    listed.addTeam(twoTeam.getTeam2());
                 }
-                TeamNameAndTime tnat = getTeamNameAndTime(row);
-                if (tnat != null) {
-                    map.put(weekId, weekMap);
-                    if (weekMap.size() == EXPECTED_NBR_TEE_TIMES &&
-                            weekMap.values().stream().allMatch(TwoTeam::isFull)) {
-                        weekMap = new HashMap<>();
-                    }
-                    TwoTeam twoTeam = weekMap.get(tnat.teamTime());
-                    if (twoTeam == null) {
-                        twoTeam = new TwoTeam();
+            });
+        });
+        return new WeeklyMatchups(dates, matchupsByDate);
+    }
+
+    /**
+     * Hands each week of the Weekly Matchups sheet to the consumer, on the reading thread, as soon as it is complete.
+     *
+     * @return the week dates in date order
+     */
+    private List<Date> readTeeTimes(WorkbookSource workbook, WorkbookReader.ReadListener listener, Consumer<WeekTeeTimes> weekDone) throws IOException {
+        TeeTimeGrouper grouper = new TeeTimeGrouper(weekDone);
+        readSheet(workbook, WEEKLY_MATCHUPS_SHEET_NAME, grouper::addRow, listener);
+        grouper.finish();
+        Collections.sort(grouper.dates);
+        return grouper.dates;
+    }
+
+    TeamNameAndTime getTeamNameAndTime(SheetRow row) {
+        TeamNameAndTime tnat = null;
+        if (row.getCellType(5) == CellType.STRING && row.getCellType(6) == CellType.NUMERIC) {
+            String teamName = row.getString(5);
+            String teeTime = new SimpleDateFormat("hh:mm").format(row.getDate(6));
+            tnat = new TeamNameAndTime(teamName, teeTime);
+        }
+        return tnat;
+    }
+
+    /**
+     * @param matchupsByDate the tee times of each week date in sheet order, keyed by tee time
+     */
+    record WeeklyMatchups(List<Date> dates, Map<Date, Map<String, TwoTeam>> matchupsByDate) {}
+
+    /**
+     * @param teeTimes the teams paired at each tee time, keyed by tee time in sheet order
+     */
+    record WeekTeeTimes(Date date, Map<String, TwoTeam> teeTimes) {}
+
+    /**
+     * Groups the Weekly Matchups rows into weeks in a single pass. A date row closes the week being read and opens
+     * the next, and each team row in between is paired with the other team at its tee time, so a week can have any
+     * number of tee times. A block is handed off once a row with another date, or the end of the sheet, is reached,
+     * unless one of its tee times has only one team so far: the week is then held, and picked up again if its date
+     * comes back later in the sheet, so a pair split across the blocks of a week still makes one match. Weeks still
+     * held at the end of the sheet are handed off as they are.
+     */
+    private class TeeTimeGrouper {
+        private final Consumer<WeekTeeTimes> weekDone;
+        private final List<Date> dates = new ArrayList<>();
+        private final Map<Date, Map<String, TwoTeam>> heldWeeks = new LinkedHashMap<>();
+        private Date weekDate;
+        private Map<String, TwoTeam> teeTimes;
+        private int teamsBeforeFirstDate;
+
+        TeeTimeGrouper(Consumer<WeekTeeTimes> weekDone) {
+            this.weekDone = weekDone;
+        }
+
+        void addRow(SheetRow row) {
+            Date date = getDateOfTeeTimes(row);
+            if (date != null) {
+                dates.add(date);
+                if (!date.equals(weekDate)) {
+                    finishWeek();
+                    weekDate = date;
+                    teeTimes = heldWeeks.remove(date);
+                    if (teeTimes == null) {
+                        teeTimes = new LinkedHashMap<>();
                     }
-                    twoTeam.addTeam(tnat.teamName());
-                    weekMap.put(tnat.teamTime(), twoTeam);
                 }
             }
+            TeamNameAndTime tnat = getTeamNameAndTime(row);
+            if (tnat != null) {
+                if (teeTimes == null) {
+                    teamsBeforeFirstDate++;
+                } else {
+                    teeTimes.computeIfAbsent(tnat.teamTime(), teeTime -> new TwoTeam()).addTeam(tnat.teamName());
+                }
+            }
+        }
+
+        void finish() {
+            finishWeek();
+            heldWeeks.forEach((date, heldTeeTimes) -> weekDone.accept(new WeekTeeTimes(date, heldTeeTimes)));
+            heldWeeks.clear();
+            if (teamsBeforeFirstDate > 0) {
+                logger.warn("Skipped {} teams listed before the first week date on the {} sheet", teamsBeforeFirstDate, WEEKLY_MATCHUPS_SHEET_NAME);
+            }
+        }
+
+        private void finishWeek() {
+            if (teeTimes != null && !teeTimes.isEmpty()) {
+                if (teeTimes.values().stream().allMatch(TwoTeam::isFull)) {
+                    weekDone.accept(new WeekTeeTimes(weekDate, teeTimes));
+                } else {
+                    heldWeeks.put(weekDate, teeTimes);
+                }
+            }
+            teeTimes = null;
         }
-        return map;
     }
 
-    private TeamNameAndTime getTeamNameAndTime(Row row) {
-        TeamNameAndTime tnat = null;
-        Cell teamNameCell = row.getCell(5);
-        if (teamNameCell != null && Objects.requireNonNull(teamNameCell.getCellType()) == CellType.STRING) {
-            Cell teeTimeCell = row.getCell(6);
-            if (teeTimeCell != null && Objects.requireNonNull(teeTimeCell.getCellType()) == CellType.NUMERIC) {
-                String teamName = teamNameCell.getStringCellValue();
-                String teeTime = new SimpleDateFormat("hh:mm").format(teeTimeCell.getDateCellValue());
-                tnat = new TeamNameAndTime(teamName, teeTime);
+    private static void join(CompletableFuture<Void> future) throws IOException {
+        try {
+            future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof IOException ioException) {
+                throw ioException;
             }
+            throw e;
         }
-        return tnat;
     }
 }
@@ -0,0 +1,166 @@
+package com.sdg.golf.service;
+
+import java.io.IOException;
+import java.sql.*;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Locale;
+import java.util.StringJoiner;
+
+/**
+ * Inserts rows into a table with one prepared statement, sending them to the database in batches of
+ * {@code batchSize}. Everything is inserted in one transaction that {@link #commit()} commits and closing an
+ * uncommitted sink rolls back. The sink owns the connection it is given and closes it. The table and column names
+ * are quoted for the database, so names that are keywords to it, such as match, can still be inserted into.
+ */
+public class JdbcRowSink implements RowSink {
+    private final Connection connection;
+    private final PreparedStatement statement;
+    private final String table;
+    private final int batchSize;
+    private final Object[] row;
+    private int col;
+    private int pending;
+    private long rowsWritten;
+    private boolean committed;
+
+    public JdbcRowSink(Connection connection, String table, List<String> columns, int batchSize) throws IOException {
+        this.connection = connection;
+        this.table = table;
+        this.batchSize = batchSize;
+        this.row = new Object[columns.size()];
+        try {
+            DatabaseMetaData metaData = connection.getMetaData();
+            StringJoiner quotedColumns = new StringJoiner(",");
+            for (String column : columns) {
+                quotedColumns.add(quote(metaData, column));
+            }
+            String sql = "insert into %s (%s) values (%s)".formatted(quote(metaData, table), quotedColumns, "?" + ",?".repeat(columns.size() - 1));
+            connection.setAutoCommit(false);
+            statement = connection.prepareStatement(sql);
+        } catch (SQLException e) {
+            closeConnection();
+            throw new IOException("Unable to insert into " + table, e);
+        }
+    }
+
+    /**
+     * Quotes an unquoted identifier the way the database would have stored it, upper or lower case as it folds
+     * unquoted names, so the quoted name still finds tables created without quotes.
+     */
+    static String quote(DatabaseMetaData metaData, String identifier) throws SQLException {
+        String quote = metaData.getIdentifierQuoteString().trim();
+        if (quote.isEmpty()) {
+            return identifier;
+        }
+        String stored = metaData.storesUpperCaseIdentifiers() ? identifier.toUpperCase(Locale.ROOT)
+                : metaData.storesLowerCaseIdentifiers() ? identifier.toLowerCase(Locale.ROOT) : identifier;
+        return quote + stored.replace(quote, quote + quote) + quote;
+    }
+
+    @Override
+    public RowSink field(CharSequence value) {
+        return set(value.toString());
+    }
+
+    @Override
+    public RowSink field(int value) {
+        return set(value);
+    }
+
+    @Override
+    public RowSink field(double value) {
+        return set(value);
+    }
+
+    @Override
+    public RowSink field(LocalDate value) {
+        return set(Date.valueOf(value));
+    }
+
+    @Override
+    public RowSink nullField() {
+        return set(null);
+    }
+
+    private RowSink set(Object value) {
+        if (col == row.length) {
+            throw new IllegalStateException("More fields than the %s columns of %s".formatted(row.length, table));
+        }
+        row[col++] = value;
+        return this;
+    }
+
+    @Override
+    public void endRow() throws IOException {
+        if (col != row.length) {
+            throw new IllegalStateException("%s fields for the %s columns of %s".formatted(col, row.length, table));
+        }
+        try {
+            for (int i = 0; i < row.length; i++) {
+                statement.setObject(i + 1, row[i]);
+            }
+            statement.addBatch();
+            if (++pending == batchSize) {
+                executeBatch();
+            }
+        } catch (SQLException e) {
+            throw new IOException("Unable to insert into " + table, e);
+        }
+        col = 0;
+        rowsWritten++;
+    }
+
+    private void executeBatch() throws SQLException {
+        statement.executeBatch();
+        pending = 0;
+    }
+
+    @Override
+    public void commit() throws IOException {
+        try {
+            if (pending > 0) {
+                executeBatch();
+            }
+            connection.commit();
+            committed = true;
+        } catch (SQLException e) {
+            throw new IOException("Unable to insert into " + table, e);
+        }
+    }
+
+    @Override
+    public long getRowsWritten() {
+        return rowsWritten;
+    }
+
+    /**
+     * @return 0, the rows go to the database rather than a file
+     */
+    @Override
+    public long getBytesWritten() {
+        return 0;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            statement.close();
+            if (!committed) {
+                connection.rollback();
+            }
+        } catch (SQLException e) {
+            throw new IOException("Unable to close insert into " + table, e);
+        } finally {
+            closeConnection();
+        }
+    }
+
+    private void closeConnection() throws IOException {
+        try {
+            connection.close();
+        } catch (SQLException e) {
+            throw new IOException("Unable to close connection for " + table, e);
+        }
+    }
+}
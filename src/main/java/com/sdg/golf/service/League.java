@@ -0,0 +1,126 @@
+package com.sdg.golf.service;
+
+import java.nio.file.Path;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The import services of one league, reading and writing under the league's own file root with its own reference
+ * cache, and the bounded executors its imports run on: one for the imports a request waits for and one for
+ * background jobs. Each runs at most as many imports at once as it has threads and queues a bounded number more, so
+ * a big league's imports cannot hold up another league's, and a league's queued jobs cannot hold up its own
+ * synchronous imports.
+ */
+public class League {
+    private final String id;
+    private final ImportWeekMatchService importWeekMatchService;
+    private final ImportRoundService importRoundService;
+    private final ImportScoreService importScoreService;
+    private final ImportSeasonService importSeasonService;
+    private final HandicapService handicapService;
+    private final ReferenceDataCache referenceDataCache;
+    private final ThreadPoolExecutor requestExecutor;
+    private final ThreadPoolExecutor jobExecutor;
+
+    League(String id, ImportWeekMatchService importWeekMatchService, ImportRoundService importRoundService,
+           ImportScoreService importScoreService, ImportSeasonService importSeasonService, HandicapService handicapService,
+           ReferenceDataCache referenceDataCache, Quota requestQuota, Quota jobQuota) {
+        this.id = id;
+        this.importWeekMatchService = importWeekMatchService;
+        this.importRoundService = importRoundService;
+        this.importScoreService = importScoreService;
+        this.importSeasonService = importSeasonService;
+        this.handicapService = handicapService;
+        this.referenceDataCache = referenceDataCache;
+        this.requestExecutor = requestQuota.newExecutor("import-" + id + "-");
+        this.jobExecutor = jobQuota.newExecutor("import-job-" + id + "-");
+    }
+
+    /**
+     * Runs the import on the league's request executor and waits for it.
+     *
+     * @throws java.util.concurrent.RejectedExecutionException when the league's request executor and queue are full
+     */
+    public <T> T run(ImportCoordinator.ImportCall<T, Exception> call) throws Exception {
+        Future<T> future = requestExecutor.submit(call::call);
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw e;
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof Exception exception) {
+                throw exception;
+            }
+            throw (Error) e.getCause();
+        }
+    }
+
+    /**
+     * Runs a background job on the league's job executor.
+     *
+     * @throws java.util.concurrent.RejectedExecutionException when the league's job executor and queue are full
+     */
+    public void submit(Runnable task) {
+        jobExecutor.execute(task);
+    }
+
+    /**
+     * @return how many imports are waiting for one of the league's request threads
+     */
+    int getQueuedRequests() {
+        return requestExecutor.getQueue().size();
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public Path getFileRoot() {
+        return importRoundService.fileRoot;
+    }
+
+    public ImportWeekMatchService getImportWeekMatchService() {
+        return importWeekMatchService;
+    }
+
+    public ImportRoundService getImportRoundService() {
+        return importRoundService;
+    }
+
+    public ImportScoreService getImportScoreService() {
+        return importScoreService;
+    }
+
+    public ImportSeasonService getImportSeasonService() {
+        return importSeasonService;
+    }
+
+    public HandicapService getHandicapService() {
+        return handicapService;
+    }
+
+    public ReferenceDataCache getReferenceDataCache() {
+        return referenceDataCache;
+    }
+
+    void shutdown() {
+        requestExecutor.shutdownNow();
+        jobExecutor.shutdownNow();
+    }
+
+    /**
+     * @param threads       the most imports of the kind run at once
+     * @param queueCapacity the most more that wait for a thread
+     */
+    public record Quota(int threads, int queueCapacity) {
+        ThreadPoolExecutor newExecutor(String threadNamePrefix) {
+            return new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(queueCapacity),
+                    Thread.ofPlatform().name(threadNamePrefix, 1).factory());
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.sdg.golf.service;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * The leagues one deployment imports for. An import without a league is for the default league, served by the
+ * application's own services under {@code import.file-root}. Each league named in {@code import.leagues} gets its
+ * own copies of the services, set up on first use, reading and writing under import.file-root/leagueId with a
+ * reference cache of its own. Every league, the default one included, runs the imports requests wait for on its own
+ * {@code import.requests.threads} threads queueing at most {@code import.requests.queue-capacity} more, and its
+ * background jobs apart from them on {@code import.jobs.threads} threads queueing {@code import.jobs.queue-capacity}.
+ */
+@Component
+public class LeagueRegistry {
+    public static final String DEFAULT_LEAGUE = "default";
+    private static final Pattern LEAGUE_ID = Pattern.compile("[a-z0-9][a-z0-9-]{0,62}");
+
+    private final League defaultLeague;
+    private final ImportRoundService defaultRoundService;
+    private final HandicapService defaultHandicapService;
+    private final Set<String> leagueIds;
+    private final int referenceCacheEntries;
+    private final League.Quota requestQuota;
+    private final League.Quota jobQuota;
+    private final Map<String, League> leagues = new ConcurrentHashMap<>();
+
+    @Autowired
+    public LeagueRegistry(ImportWeekMatchService importWeekMatchService, ImportRoundService importRoundService,
+                          ImportScoreService importScoreService, ImportSeasonService importSeasonService,
+                          HandicapService handicapService, ReferenceDataCache referenceDataCache,
+                          @Value("${import.leagues:}") String leagueIds,
+                          @Value("${import.reference-cache.max-entries:32}") int referenceCacheEntries,
+                          @Value("${import.requests.threads:2}") int requestThreads,
+                          @Value("${import.requests.queue-capacity:20}") int requestQueueCapacity,
+                          @Value("${import.jobs.threads:2}") int jobThreads,
+                          @Value("${import.jobs.queue-capacity:20}") int jobQueueCapacity) {
+        this.defaultRoundService = importRoundService;
+        this.defaultHandicapService = handicapService;
+        this.leagueIds = Arrays.stream(leagueIds.split(",")).map(String::trim).filter(id -> !id.isEmpty())
+                .collect(Collectors.toUnmodifiableSet());
+        for (String leagueId : this.leagueIds) {
+            if (!LEAGUE_ID.matcher(leagueId).matches() || leagueId.equals(DEFAULT_LEAGUE)) {
+                throw new IllegalArgumentException("League id %s must be lower case letters, digits and dashes, and not %s"
+                        .formatted(leagueId, DEFAULT_LEAGUE));
+            }
+        }
+        this.referenceCacheEntries = referenceCacheEntries;
+        this.requestQuota = new League.Quota(requestThreads, requestQueueCapacity);
+        this.jobQuota = new League.Quota(jobThreads, jobQueueCapacity);
+        this.defaultLeague = new League(DEFAULT_LEAGUE, importWeekMatchService, importRoundService, importScoreService,
+                importSeasonService, handicapService, referenceDataCache, requestQuota, jobQuota);
+    }
+
+    /**
+     * @param leagueId null or blank for the default league
+     * @return the league, or empty when it is not one of {@code import.leagues}
+     */
+    public Optional<League> find(String leagueId) {
+        if (leagueId == null || leagueId.isBlank() || leagueId.equals(DEFAULT_LEAGUE)) {
+            return Optional.of(defaultLeague);
+        }
+        if (!leagueIds.contains(leagueId)) {
+            return Optional.empty();
+        }
+        return Optional.of(leagues.computeIfAbsent(leagueId, this::createLeague));
+    }
+
+    private League createLeague(String leagueId) {
+        Path fileRoot = defaultRoundService.fileRoot.resolve(leagueId);
+        ReferenceDataCache referenceDataCache = new ReferenceDataCache(referenceCacheEntries);
+        ImportWeekMatchService importWeekMatchService = new ImportWeekMatchService();
+        ImportRoundService importRoundService = new ImportRoundService();
+        HandicapService handicapService = new HandicapService(importRoundService);
+        ImportScoreService importScoreService = new ImportScoreService(importRoundService, handicapService);
+        ImportSeasonService importSeasonService = new ImportSeasonService(importWeekMatchService, importRoundService);
+        for (ImportService importService : new ImportService[] {importWeekMatchService, importRoundService, importScoreService, importSeasonService}) {
+            importService.configureForLeague(defaultRoundService, fileRoot, referenceDataCache);
+        }
+        handicapService.configureForLeague(defaultHandicapService, fileRoot, referenceDataCache);
+        return new League(leagueId, importWeekMatchService, importRoundService, importScoreService, importSeasonService,
+                handicapService, referenceDataCache, requestQuota, jobQuota);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        defaultLeague.shutdown();
+        leagues.values().forEach(League::shutdown);
+    }
+}
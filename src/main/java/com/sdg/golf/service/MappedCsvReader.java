@@ -0,0 +1,252 @@
+package com.sdg.golf.service;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Date;
+
+/**
+ * Reads the comma separated extract and import files from a memory mapped buffer, one record at a time. Numbers
+ * and dates are parsed straight from the mapped bytes; only text fields become Strings. Blank lines are skipped
+ * and fields are not quoted, the same as the files have always been split.
+ * <pre>
+ * MappedCsvReader csv = MappedCsvReader.open(path);
+ * while (csv.nextRecord()) {
+ *     int weekId = csv.nextInt();
+ *     Date weekDate = csv.nextDate();
+ * }
+ * </pre>
+ */
+public class MappedCsvReader {
+    private static final double[] POWERS_OF_TEN = {1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11, 1e12, 1e13, 1e14, 1e15};
+    private static final int MAX_EXACT_DIGITS = 15;
+
+    private final Path path;
+    private final MappedByteBuffer buffer;
+    private final int limit;
+    private byte[] scratch = new byte[64];
+    private int pos;
+    private int line;
+    private int lineStart;
+    private boolean started;
+
+    private MappedCsvReader(Path path, MappedByteBuffer buffer) {
+        this.path = path;
+        this.buffer = buffer;
+        this.limit = buffer.limit();
+    }
+
+    public static MappedCsvReader open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("File too large to map: " + path);
+            }
+            return new MappedCsvReader(path, channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    /**
+     * Moves to the start of the next non blank line, skipping whatever is left of the current one.
+     *
+     * @return false when there are no more records
+     */
+    public boolean nextRecord() {
+        if (started) {
+            while (pos < limit && buffer.get(pos) != '\n') {
+                pos++;
+            }
+        } else {
+            started = true;
+            line = 1;
+            if (limit >= 3 && (buffer.get(0) & 0xFF) == 0xEF && (buffer.get(1) & 0xFF) == 0xBB && (buffer.get(2) & 0xFF) == 0xBF) {
+                pos = 3;
+            }
+        }
+        while (pos < limit && (buffer.get(pos) == '\n' || buffer.get(pos) == '\r')) {
+            if (buffer.get(pos++) == '\n') {
+                line++;
+                lineStart = pos;
+            }
+        }
+        return pos < limit;
+    }
+
+    /**
+     * @return true when the rest of the current line is exactly the given text
+     */
+    public boolean lineEquals(String text) {
+        int end = endOfField(true);
+        if (end - pos != text.length()) {
+            return false;
+        }
+        for (int i = 0; i < text.length(); i++) {
+            if (buffer.get(pos + i) != text.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public int nextInt() throws CsvParseException {
+        int start = pos;
+        boolean negative = consume('-');
+        long value = 0;
+        int digits = 0;
+        while (pos < limit && isDigit(buffer.get(pos))) {
+            value = value * 10 + (buffer.get(pos++) - '0');
+            if (value > (long) Integer.MAX_VALUE + 1) {
+                throw error(start, "integer out of range");
+            }
+            digits++;
+        }
+        if (digits == 0) {
+            throw error(start, "expected an integer");
+        }
+        value = negative ? -value : value;
+        if (value > Integer.MAX_VALUE) {
+            throw error(start, "integer out of range");
+        }
+        endField(start, "integer");
+        return (int) value;
+    }
+
+    public double nextDouble() throws CsvParseException {
+        int start = pos;
+        boolean negative = consume('-');
+        long mantissa = 0;
+        int digits = 0;
+        int fractionDigits = 0;
+        boolean fraction = false;
+        while (pos < limit) {
+            byte b = buffer.get(pos);
+            if (isDigit(b)) {
+                mantissa = digits < MAX_EXACT_DIGITS ? mantissa * 10 + (b - '0') : mantissa;
+                digits++;
+                fractionDigits += fraction ? 1 : 0;
+            } else if (b == '.' && !fraction) {
+                fraction = true;
+            } else {
+                break;
+            }
+            pos++;
+        }
+        if (digits == 0) {
+            throw error(start, "expected a number");
+        }
+        double value;
+        if (digits <= MAX_EXACT_DIGITS) {
+            // both operands are exact doubles, so the correctly rounded quotient is what Double.parseDouble returns
+            value = mantissa / POWERS_OF_TEN[fractionDigits];
+            value = negative ? -value : value;
+        } else {
+            value = Double.parseDouble(new String(bytes(start, pos), 0, pos - start, StandardCharsets.US_ASCII));
+        }
+        endField(start, "number");
+        return value;
+    }
+
+    /**
+     * @return the yyyy-MM-dd date at the start of that day in the default time zone
+     */
+    public Date nextDate() throws CsvParseException {
+        int start = pos;
+        int year = datePart(start, 4);
+        expect(start, '-');
+        int month = datePart(start, 2);
+        expect(start, '-');
+        int day = datePart(start, 2);
+        endField(start, "date");
+        try {
+            return Date.from(LocalDate.of(year, month, day).atStartOfDay(ZoneId.systemDefault()).toInstant());
+        } catch (DateTimeException e) {
+            throw error(start, e.getMessage());
+        }
+    }
+
+    public String nextString() throws CsvParseException {
+        int start = pos;
+        int end = endOfField(false);
+        String value = new String(bytes(start, end), 0, end - start, StandardCharsets.UTF_8);
+        pos = end;
+        endField(start, "text");
+        return value;
+    }
+
+    private int datePart(int fieldStart, int maxDigits) throws CsvParseException {
+        int value = 0;
+        int digits = 0;
+        while (pos < limit && digits < maxDigits && isDigit(buffer.get(pos))) {
+            value = value * 10 + (buffer.get(pos++) - '0');
+            digits++;
+        }
+        if (digits == 0) {
+            throw error(fieldStart, "expected a yyyy-MM-dd date");
+        }
+        return value;
+    }
+
+    private void expect(int fieldStart, char c) throws CsvParseException {
+        if (!consume(c)) {
+            throw error(fieldStart, "expected a yyyy-MM-dd date");
+        }
+    }
+
+    private boolean consume(char c) {
+        if (pos < limit && buffer.get(pos) == c) {
+            pos++;
+            return true;
+        }
+        return false;
+    }
+
+    private void endField(int fieldStart, String expected) throws CsvParseException {
+        if (pos < limit) {
+            byte b = buffer.get(pos);
+            if (b == ',') {
+                pos++;
+            } else if (b != '\n' && b != '\r') {
+                throw error(fieldStart, "expected " + expected);
+            }
+        }
+    }
+
+    private int endOfField(boolean wholeLine) {
+        int end = pos;
+        while (end < limit) {
+            byte b = buffer.get(end);
+            if (b == '\n' || b == '\r' || (b == ',' && !wholeLine)) {
+                break;
+            }
+            end++;
+        }
+        return end;
+    }
+
+    private byte[] bytes(int start, int end) {
+        if (scratch.length < end - start) {
+            scratch = new byte[Math.max(end - start, scratch.length * 2)];
+        }
+        buffer.get(start, scratch, 0, end - start);
+        return scratch;
+    }
+
+    private static boolean isDigit(byte b) {
+        return b >= '0' && b <= '9';
+    }
+
+    private CsvParseException error(int fieldStart, String message) {
+        return new CsvParseException("%s line %d column %d: %s".formatted(path, line, fieldStart - lineStart + 1, message));
+    }
+
+    public static class CsvParseException extends IOException {
+        public CsvParseException(String message) {
+            super(message);
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.sdg.golf.service;
+
+import com.sdg.golf.service.ImportRoundService.Match;
+
+import java.util.*;
+
+/**
+ * Maps (weekId, teamId) to the id of the match the team plays that week. Both ids are packed into one long key
+ * of an open addressing table, so a lookup is a few array reads with no boxing. Teams in more than one match in
+ * a week and weeks without matches are found when the index is built.
+ */
+public class MatchIndex {
+    public static final int NO_MATCH = -1;
+    private static final long EMPTY = -1L;
+
+    private final long[] keys;
+    private final int[] matchIds;
+    private final int mask;
+    private final List<String> errors = new ArrayList<>();
+    private final Map<Integer, String> missingWeeks = new HashMap<>();
+
+    /**
+     * @param weekIds the weeks of the season, each expected to have at least one match
+     */
+    public MatchIndex(List<Match> matches, Collection<Integer> weekIds) {
+        int capacity = Integer.highestOneBit(Math.max(4, matches.size() * 4) - 1) << 1;
+        keys = new long[capacity];
+        matchIds = new int[capacity];
+        mask = capacity - 1;
+        Arrays.fill(keys, EMPTY);
+
+        Set<Integer> weeksWithMatches = new HashSet<>();
+        for (Match match : matches) {
+            weeksWithMatches.add(match.weekId());
+            if (match.team1Id() == match.team2Id()) {
+                errors.add("Match %s has team %s playing itself in week %s".formatted(match.id(), match.team1Id(), match.weekId()));
+            } else {
+                put(match.weekId(), match.team1Id(), match.id());
+                put(match.weekId(), match.team2Id(), match.id());
+            }
+        }
+        for (Integer weekId : weekIds) {
+            if (!weeksWithMatches.contains(weekId)) {
+                missingWeeks.put(weekId, "No matches on the match extract file for week %s".formatted(weekId));
+            }
+        }
+    }
+
+    /**
+     * @return the match id or {@link #NO_MATCH}
+     */
+    public int get(int weekId, int teamId) {
+        long key = key(weekId, teamId);
+        for (int i = slot(key); ; i = (i + 1) & mask) {
+            if (keys[i] == key) {
+                return matchIds[i];
+            }
+            if (keys[i] == EMPTY) {
+                return NO_MATCH;
+            }
+        }
+    }
+
+    /**
+     * @return the problems that make a match id ambiguous, empty when the index is sound
+     */
+    public List<String> getErrors() {
+        return errors;
+    }
+
+    /**
+     * @return why the week has no matches, or null when it has some
+     */
+    public String getMissingWeek(int weekId) {
+        return missingWeeks.get(weekId);
+    }
+
+    public Collection<String> getMissingWeeks() {
+        return missingWeeks.values();
+    }
+
+    private void put(int weekId, int teamId, int matchId) {
+        long key = key(weekId, teamId);
+        int i = slot(key);
+        while (keys[i] != EMPTY) {
+            if (keys[i] == key) {
+                errors.add("Team %s is in matches %s and %s in week %s".formatted(teamId, matchIds[i], matchId, weekId));
+                return;
+            }
+            i = (i + 1) & mask;
+        }
+        keys[i] = key;
+        matchIds[i] = matchId;
+    }
+
+    private int slot(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+
+    private static long key(int weekId, int teamId) {
+        return ((long) weekId << 32) | (teamId & 0xFFFFFFFFL);
+    }
+}
@@ -0,0 +1,76 @@
+package com.sdg.golf.service;
+
+import com.sdg.golf.service.ImportService.PlayerExtract;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Resolves the names written on score cards to players on the player extract file. Cards use a first name,
+ * optionally followed by a last initial or last name ("John", "John G", "John Grimm"), or an alias for the
+ * first name ("Baby J"). Every form is a direct hash key built once from the extract; each distinct card name
+ * is resolved once and remembered. A first name alone shared by several players resolves to the first of them
+ * on the extract, and such ambiguities are collected when the index is built.
+ */
+public class PlayerNameIndex {
+    private final Map<String, String> aliases = new HashMap<>();
+    private final Map<String, PlayerExtract> byFirstName = new HashMap<>();
+    private final Set<String> sharedFirstNames = new HashSet<>();
+    private final Map<String, PlayerExtract> byFirstAndLast = new HashMap<>();
+    private final Map<String, Optional<PlayerExtract>> resolved = new ConcurrentHashMap<>();
+    private final List<String> ambiguities = new ArrayList<>();
+
+    /**
+     * @param aliases card first names mapped to the first name on the extract
+     */
+    public PlayerNameIndex(List<PlayerExtract> playerExtracts, Map<String, String> aliases) {
+        aliases.forEach((alias, firstName) -> this.aliases.put(normalize(alias), normalize(firstName)));
+        for (PlayerExtract player : playerExtracts) {
+            String firstName = normalize(player.firstName());
+            String lastName = normalize(player.lastName());
+            PlayerExtract first = byFirstName.putIfAbsent(firstName, player);
+            if (first != null && sharedFirstNames.add(firstName)) {
+                ambiguities.add("Card name %s alone matches more than one player, using %s %s"
+                        .formatted(player.firstName(), first.firstName(), first.lastName()));
+            }
+            if (!lastName.isEmpty()) {
+                addFirstAndLast(firstName + " " + lastName.charAt(0), player);
+                addFirstAndLast(firstName + " " + lastName, player);
+            }
+        }
+    }
+
+    private void addFirstAndLast(String key, PlayerExtract player) {
+        PlayerExtract first = byFirstAndLast.putIfAbsent(key, player);
+        if (first != null) {
+            ambiguities.add("Card name %s matches players %s and %s, using %s".formatted(key, first.playerId(), player.playerId(), first.playerId()));
+        }
+    }
+
+    /**
+     * @return the player for the name on a card or null when there is none
+     */
+    public PlayerExtract resolve(String nameOnCard) {
+        return resolved.computeIfAbsent(nameOnCard, name -> Optional.ofNullable(lookup(name))).orElse(null);
+    }
+
+    public List<String> getAmbiguities() {
+        return ambiguities;
+    }
+
+    private PlayerExtract lookup(String nameOnCard) {
+        String[] tokens = normalize(nameOnCard).split(" ");
+        String firstName = aliases.getOrDefault(tokens[0], tokens[0]);
+        if (tokens.length == 2) {
+            PlayerExtract player = byFirstAndLast.get(firstName + " " + tokens[1]);
+            if (player != null || sharedFirstNames.contains(firstName)) {
+                return player;
+            }
+        }
+        return byFirstName.get(firstName);
+    }
+
+    private static String normalize(String name) {
+        return name.trim().replaceAll("\\s+", " ").toLowerCase();
+    }
+}
@@ -0,0 +1,109 @@
+package com.sdg.golf.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+
+/**
+ * Holds the structures parsed from the per year extract files so that repeat imports, and imports running at the
+ * same time, share one parse. An entry is reloaded when the modified time or size of any file it was parsed from
+ * changes, and the least recently used entry is evicted once {@code import.reference-cache.max-entries} is
+ * exceeded. Cached values are shared between threads and must not be modified.
+ */
+@Component
+public class ReferenceDataCache {
+    private final Map<Key, Entry> entries;
+    private long hits;
+    private long misses;
+
+    public ReferenceDataCache(@Value("${import.reference-cache.max-entries:32}") int maxEntries) {
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    /**
+     * @param kind  names what the loader builds, so one file can back several cached structures
+     * @param files the files the loader reads, checked for changes on every call
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(int year, String kind, Loader<T> loader, Path... files) throws IOException {
+        Key key = new Key(year, kind);
+        List<FileStamp> stamps = stamp(files);
+        Entry entry;
+        boolean load = false;
+        synchronized (entries) {
+            entry = entries.get(key);
+            if (entry != null && entry.stamps().equals(stamps)) {
+                hits++;
+            } else {
+                misses++;
+                entry = new Entry(stamps, new FutureTask<>(loader::load));
+                entries.put(key, entry);
+                load = true;
+            }
+        }
+        if (load) {
+            entry.value().run();
+        }
+        try {
+            return (T) entry.value().get();
+        } catch (ExecutionException e) {
+            synchronized (entries) {
+                entries.remove(key, entry);
+            }
+            if (e.getCause() instanceof IOException ioException) {
+                throw ioException;
+            } else if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new UncheckedIOException(new IOException(e.getCause()));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted loading " + kind + " for " + year);
+        }
+    }
+
+    public Stats getStats() {
+        synchronized (entries) {
+            return new Stats(hits, misses, entries.size());
+        }
+    }
+
+    private List<FileStamp> stamp(Path... files) throws IOException {
+        List<FileStamp> stamps = new ArrayList<>(files.length);
+        for (Path file : files) {
+            BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+            stamps.add(new FileStamp(file, attributes.lastModifiedTime().toMillis(), attributes.size()));
+        }
+        return stamps;
+    }
+
+    @FunctionalInterface
+    public interface Loader<T> {
+        T load() throws IOException;
+    }
+
+    public record Stats(long hits, long misses, int entries) {}
+
+    private record Key(int year, String kind) {}
+
+    private record FileStamp(Path file, long modifiedMillis, long size) {}
+
+    private record Entry(List<FileStamp> stamps, FutureTask<Object> value) {}
+}
@@ -0,0 +1,136 @@
+package com.sdg.golf.service;
+
+import com.sdg.golf.service.ImportRoundService.Round;
+import com.sdg.golf.service.ImportRoundService.SeasonRoundResult;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * What the last incremental round import resolved: the digest of each dated score card sheet along with the rounds
+ * and errors the sheet resolved to, and a digest of the players, matches and weeks they were resolved against.
+ * A sheet whose digest still matches is taken from here instead of being parsed and resolved again. Line breaks
+ * and backslashes in the errors are escaped, so each is one line of the file.
+ */
+public class RoundCheckpoint {
+    private static final Logger logger = LoggerFactory.getLogger(RoundCheckpoint.class);
+
+    private final String referenceDigest;
+    private final Map<Date, SheetEntry> sheets = new HashMap<>();
+
+    public RoundCheckpoint(String referenceDigest) {
+        this.referenceDigest = referenceDigest;
+    }
+
+    /**
+     * @return the checkpoint saved at the path, or an empty one when there is none, it was resolved against
+     * different reference data or it cannot be made sense of, so that every sheet is parsed again
+     */
+    public static RoundCheckpoint read(Path path, String referenceDigest) throws IOException {
+        if (!Files.exists(path)) {
+            return new RoundCheckpoint(referenceDigest);
+        }
+        try {
+            return parse(path, referenceDigest);
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Ignoring round checkpoint {} that cannot be read back, every sheet is parsed again: {}", path, e.toString());
+            return new RoundCheckpoint(referenceDigest);
+        }
+    }
+
+    private static RoundCheckpoint parse(Path path, String referenceDigest) throws IOException {
+        RoundCheckpoint checkpoint = new RoundCheckpoint(referenceDigest);
+        try (BufferedReader reader = Files.newBufferedReader(path)) {
+            if (!("reference," + referenceDigest).equals(reader.readLine())) {
+                return checkpoint;
+            }
+            SeasonRoundResult result = null;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] fields = line.split(",", 2);
+                switch (fields[0]) {
+                    case "sheet" -> {
+                        String[] sheet = fields[1].split(",");
+                        result = new SeasonRoundResult();
+                        checkpoint.put(toDate(LocalDate.parse(sheet[0])), sheet[1], result);
+                    }
+                    case "round" -> {
+                        String[] round = fields[1].split(",");
+                        result.rounds.add(new Round(Integer.parseInt(round[0]), Integer.parseInt(round[1]),
+                                Integer.parseInt(round[2]), Double.parseDouble(round[3])));
+                    }
+                    case "error" -> result.errors.add(unescape(fields[1]));
+                    default -> throw new IOException("Unexpected line in round checkpoint %s: %s".formatted(path, line));
+                }
+            }
+        }
+        return checkpoint;
+    }
+
+    /**
+     * @return the saved result of the sheet for the date, or null when it was not saved with this digest
+     */
+    public SeasonRoundResult get(Date roundDate, String sheetDigest) {
+        SheetEntry entry = sheets.get(roundDate);
+        return entry != null && entry.sheetDigest().equals(sheetDigest) ? entry.result() : null;
+    }
+
+    public void put(Date roundDate, String sheetDigest, SeasonRoundResult result) {
+        sheets.put(roundDate, new SheetEntry(sheetDigest, result));
+    }
+
+    public int size() {
+        return sheets.size();
+    }
+
+    public void write(Path path) throws IOException {
+        try (RowSink sink = new AtomicFileRowSink(path, "reference," + referenceDigest)) {
+            for (Map.Entry<Date, SheetEntry> sheet : new TreeMap<>(sheets).entrySet()) {
+                LocalDate roundDate = LocalDate.ofInstant(sheet.getKey().toInstant(), ZoneId.systemDefault());
+                sink.field("sheet").field(roundDate).field(sheet.getValue().sheetDigest()).endRow();
+                SeasonRoundResult result = sheet.getValue().result();
+                for (Round round : result.rounds) {
+                    sink.field("round").field(round.playerId()).field(round.matchId()).field(round.teamId()).field(round.handicap()).endRow();
+                }
+                for (String error : result.errors) {
+                    sink.field("error").field(escape(error)).endRow();
+                }
+            }
+            sink.commit();
+        }
+    }
+
+    private static String escape(String error) {
+        return error.replace("\\", "\\\\").replace("\n", "\\n").replace("\r", "\\r");
+    }
+
+    private static String unescape(String error) {
+        StringBuilder unescaped = new StringBuilder(error.length());
+        for (int i = 0; i < error.length(); i++) {
+            char c = error.charAt(i);
+            if (c == '\\' && i + 1 < error.length()) {
+                char escaped = error.charAt(++i);
+                unescaped.append(escaped == 'n' ? '\n' : escaped == 'r' ? '\r' : escaped);
+            } else {
+                unescaped.append(c);
+            }
+        }
+        return unescaped.toString();
+    }
+
+    private static Date toDate(LocalDate date) {
+        return Date.from(date.atStartOfDay(ZoneId.systemDefault()).toInstant());
+    }
+
+    private record SheetEntry(String sheetDigest, SeasonRoundResult result) {}
+}
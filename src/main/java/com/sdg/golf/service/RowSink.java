@@ -0,0 +1,45 @@
+package com.sdg.golf.service;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.time.LocalDate;
+
+/**
+ * Receives output rows as they are produced. Fields are added to the current row, comma separated, until
+ * {@link #endRow()}. Nothing is visible to readers of the output until {@link #commit()}; closing a sink that was
+ * not committed discards everything written to it.
+ */
+public interface RowSink extends Closeable {
+
+    RowSink field(CharSequence value);
+
+    RowSink field(int value);
+
+    RowSink field(double value);
+
+    /**
+     * Adds a yyyy-MM-dd date.
+     */
+    RowSink field(LocalDate value);
+
+    /**
+     * Adds a missing value, written to files as the text null.
+     */
+    RowSink nullField();
+
+    default RowSink field(Integer value) {
+        return value == null ? nullField() : field(value.intValue());
+    }
+
+    void endRow() throws IOException;
+
+    default void row(CharSequence row) throws IOException {
+        field(row).endRow();
+    }
+
+    void commit() throws IOException;
+
+    long getRowsWritten();
+
+    long getBytesWritten();
+}
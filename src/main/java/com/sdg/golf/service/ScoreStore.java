@@ -0,0 +1,112 @@
+package com.sdg.golf.service;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Hole by hole strokes for a run of rounds, held a column at a time in primitive arrays that grow as rounds are
+ * added rather than as an object per hole: the player and match id of each round, the number of its first hole and
+ * one byte of strokes for each of its holes. A nine hole round takes 18 bytes however many seasons are held.
+ */
+public class ScoreStore {
+    public static final int HOLES = 9;
+
+    private int size;
+    private int[] playerIds;
+    private int[] matchIds;
+    private byte[] firstHoles;
+    private byte[] strokes;
+
+    public ScoreStore() {
+        this(64);
+    }
+
+    public ScoreStore(int initialRounds) {
+        playerIds = new int[initialRounds];
+        matchIds = new int[initialRounds];
+        firstHoles = new byte[initialRounds];
+        strokes = new byte[initialRounds * HOLES];
+    }
+
+    /**
+     * @param holeStrokes the strokes of holes firstHole to firstHole + 8, from offset
+     * @return the index of the added round
+     */
+    public int add(int playerId, int matchId, int firstHole, byte[] holeStrokes, int offset) {
+        ensureCapacity(size + 1);
+        playerIds[size] = playerId;
+        matchIds[size] = matchId;
+        firstHoles[size] = (byte) firstHole;
+        System.arraycopy(holeStrokes, offset, strokes, size * HOLES, HOLES);
+        return size++;
+    }
+
+    /**
+     * Adds a round of the other store under the ids it resolved to.
+     */
+    public int add(int playerId, int matchId, ScoreStore other, int round) {
+        return add(playerId, matchId, other.firstHoles[round], other.strokes, round * HOLES);
+    }
+
+    public void addAll(ScoreStore other) {
+        ensureCapacity(size + other.size);
+        System.arraycopy(other.playerIds, 0, playerIds, size, other.size);
+        System.arraycopy(other.matchIds, 0, matchIds, size, other.size);
+        System.arraycopy(other.firstHoles, 0, firstHoles, size, other.size);
+        System.arraycopy(other.strokes, 0, strokes, size * HOLES, other.size * HOLES);
+        size += other.size;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int getPlayerId(int round) {
+        return playerIds[round];
+    }
+
+    public int getMatchId(int round) {
+        return matchIds[round];
+    }
+
+    public int getFirstHole(int round) {
+        return firstHoles[round];
+    }
+
+    /**
+     * @param hole zero based within the round
+     */
+    public int getStrokes(int round, int hole) {
+        return strokes[round * HOLES + hole];
+    }
+
+    public int getTotal(int round) {
+        int total = 0;
+        for (int hole = 0; hole < HOLES; hole++) {
+            total += strokes[round * HOLES + hole];
+        }
+        return total;
+    }
+
+    /**
+     * Streams a row per hole, round by round, without building the rows first.
+     */
+    public void write(RowSink sink) throws IOException {
+        for (int round = 0; round < size; round++) {
+            for (int hole = 0; hole < HOLES; hole++) {
+                sink.field(playerIds[round]).field(matchIds[round]).field(firstHoles[round] + hole)
+                        .field(strokes[round * HOLES + hole]).endRow();
+            }
+        }
+    }
+
+    private void ensureCapacity(int rounds) {
+        if (rounds > playerIds.length) {
+            int capacity = Math.max(rounds, playerIds.length * 2);
+            playerIds = Arrays.copyOf(playerIds, capacity);
+            matchIds = Arrays.copyOf(matchIds, capacity);
+            firstHoles = Arrays.copyOf(firstHoles, capacity);
+            strokes = Arrays.copyOf(strokes, capacity * HOLES);
+        }
+    }
+}
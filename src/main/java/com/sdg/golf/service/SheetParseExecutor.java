@@ -0,0 +1,54 @@
+package com.sdg.golf.service;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The one pool score card sheets are parsed and resolved on, shared by the imports of every league. Parsing is cpu
+ * bound, so {@code import.parse.threads} defaults to one platform thread per core however many imports run at once,
+ * rather than each import starting a pool of its own. At most {@code import.parse.queue-capacity} sheets wait for a
+ * thread; past that the importing thread parses the sheet itself, which slows the imports down instead of failing
+ * them. Idle threads stop after a minute and are daemon threads, so the default instance a service is built with
+ * keeps nothing running.
+ */
+@Component
+public class SheetParseExecutor implements Executor {
+    private final ThreadPoolExecutor executor;
+
+    @Autowired
+    public SheetParseExecutor(@Value("${import.parse.threads:0}") int threads,
+                              @Value("${import.parse.queue-capacity:1000}") int queueCapacity) {
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        executor = new ThreadPoolExecutor(poolSize, poolSize, 1, TimeUnit.MINUTES, new LinkedBlockingQueue<>(queueCapacity),
+                Thread.ofPlatform().name("import-parse-", 1).daemon(true).factory(), new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * One thread per core and the default queue.
+     */
+    SheetParseExecutor() {
+        this(0, 1000);
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        executor.execute(task);
+    }
+
+    int getPoolSize() {
+        return executor.getMaximumPoolSize();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdown();
+    }
+}
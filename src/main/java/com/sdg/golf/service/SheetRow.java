@@ -0,0 +1,105 @@
+package com.sdg.golf.service;
+
+import org.apache.poi.ss.usermodel.CellType;
+import org.apache.poi.ss.usermodel.DateUtil;
+
+import java.util.Arrays;
+import java.util.Date;
+
+/**
+ * A single worksheet row as seen by a {@link WorkbookReader}. The same instance is reused for every row of a
+ * workbook, so a {@link SheetVisitor} must copy out anything it wants to keep before returning.
+ * Formula cells report the type and value of their cached result.
+ */
+public class SheetRow {
+    private final boolean date1904;
+    private int rowNum;
+    private int width;
+    private CellType[] types = new CellType[16];
+    private String[] strings = new String[16];
+    private double[] numbers = new double[16];
+
+    SheetRow(boolean date1904) {
+        this.date1904 = date1904;
+    }
+
+    boolean isDate1904() {
+        return date1904;
+    }
+
+    public int getRowNum() {
+        return rowNum;
+    }
+
+    /**
+     * @return one more than the column of the last cell in the row
+     */
+    int getWidth() {
+        return width;
+    }
+
+    /**
+     * @return the type of the cell at the given zero based column or null when the row has no such cell
+     */
+    public CellType getCellType(int col) {
+        return col < width ? types[col] : null;
+    }
+
+    /**
+     * @return the text of a string cell, an empty string for a blank cell and null otherwise
+     */
+    public String getString(int col) {
+        CellType type = getCellType(col);
+        if (type == CellType.STRING) {
+            return strings[col];
+        }
+        return type == CellType.BLANK ? "" : null;
+    }
+
+    public double getNumber(int col) {
+        return getCellType(col) == CellType.NUMERIC ? numbers[col] : 0;
+    }
+
+    public Date getDate(int col) {
+        return getCellType(col) == CellType.NUMERIC ? DateUtil.getJavaDate(numbers[col], date1904) : null;
+    }
+
+    void reset(int rowNum) {
+        Arrays.fill(types, 0, width, null);
+        Arrays.fill(strings, 0, width, null);
+        this.rowNum = rowNum;
+        this.width = 0;
+    }
+
+    void setString(int col, String value) {
+        set(col, CellType.STRING).strings[col] = value;
+    }
+
+    void setNumber(int col, double value) {
+        set(col, CellType.NUMERIC).numbers[col] = value;
+    }
+
+    void setBoolean(int col, boolean value) {
+        set(col, CellType.BOOLEAN).numbers[col] = value ? 1 : 0;
+    }
+
+    void setBlank(int col) {
+        set(col, CellType.BLANK);
+    }
+
+    void setError(int col) {
+        set(col, CellType.ERROR);
+    }
+
+    private SheetRow set(int col, CellType type) {
+        if (col >= types.length) {
+            int capacity = Math.max(col + 1, types.length * 2);
+            types = Arrays.copyOf(types, capacity);
+            strings = Arrays.copyOf(strings, capacity);
+            numbers = Arrays.copyOf(numbers, capacity);
+        }
+        types[col] = type;
+        width = Math.max(width, col + 1);
+        return this;
+    }
+}
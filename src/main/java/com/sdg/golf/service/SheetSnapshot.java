@@ -0,0 +1,126 @@
+package com.sdg.golf.service;
+
+import org.apache.poi.ss.usermodel.CellType;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * The cells of one parsed sheet, kept a column at a time in primitive arrays so the sheet can be visited again
+ * without opening the workbook: for each row its number and where its cells start, and for each cell its column,
+ * type and either its number or the index of its text, each distinct text being kept once.
+ */
+public class SheetSnapshot {
+    private static final CellType[] CELL_TYPES = CellType.values();
+
+    private final boolean date1904;
+    private final int rows;
+    private final int[] rowNums;
+    private final int[] rowStarts;
+    private final short[] cols;
+    private final byte[] types;
+    private final double[] numbers;
+    private final String[] strings;
+
+    private SheetSnapshot(Builder builder) {
+        date1904 = builder.date1904;
+        rows = builder.rows;
+        rowNums = Arrays.copyOf(builder.rowNums, rows);
+        rowStarts = Arrays.copyOf(builder.rowStarts, rows + 1);
+        rowStarts[rows] = builder.cells;
+        cols = Arrays.copyOf(builder.cols, builder.cells);
+        types = Arrays.copyOf(builder.types, builder.cells);
+        numbers = Arrays.copyOf(builder.numbers, builder.cells);
+        strings = new String[builder.strings.size()];
+        builder.strings.forEach((string, index) -> strings[index] = string);
+    }
+
+    /**
+     * Parses the sheet of the workbook into a snapshot, empty when the workbook has no such sheet.
+     */
+    static SheetSnapshot read(WorkbookReader workbookReader, WorkbookSource workbook, String sheetName,
+                              WorkbookReader.ReadListener listener) throws IOException {
+        Builder builder = new Builder();
+        workbookReader.read(workbook, SheetVisitor.forSheet(sheetName, builder::add), listener);
+        return new SheetSnapshot(builder);
+    }
+
+    /**
+     * Passes each row of the sheet to the consumer, through a single reused {@link SheetRow} as a reader would.
+     */
+    void visitRows(Consumer<SheetRow> rowConsumer) {
+        SheetRow row = new SheetRow(date1904);
+        for (int r = 0; r < rows; r++) {
+            row.reset(rowNums[r]);
+            for (int cell = rowStarts[r]; cell < rowStarts[r + 1]; cell++) {
+                int col = cols[cell];
+                switch (CELL_TYPES[types[cell]]) {
+                    case STRING -> row.setString(col, strings[(int) numbers[cell]]);
+                    case NUMERIC -> row.setNumber(col, numbers[cell]);
+                    case BOOLEAN -> row.setBoolean(col, numbers[cell] != 0);
+                    case ERROR -> row.setError(col);
+                    default -> row.setBlank(col);
+                }
+            }
+            rowConsumer.accept(row);
+        }
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    /**
+     * @return roughly how many bytes of heap the snapshot holds
+     */
+    public long getSizeInBytes() {
+        long size = 64 + rowNums.length * 4L + rowStarts.length * 4L + cols.length * (2L + 1 + 8);
+        for (String string : strings) {
+            size += 48 + string.length() * 2L;
+        }
+        return size;
+    }
+
+    private static class Builder {
+        private final Map<String, Integer> strings = new HashMap<>();
+        private boolean date1904;
+        private int rows;
+        private int cells;
+        private int[] rowNums = new int[64];
+        private int[] rowStarts = new int[65];
+        private short[] cols = new short[256];
+        private byte[] types = new byte[256];
+        private double[] numbers = new double[256];
+
+        void add(SheetRow row) {
+            if (rows + 1 >= rowStarts.length) {
+                rowNums = Arrays.copyOf(rowNums, rowNums.length * 2);
+                rowStarts = Arrays.copyOf(rowStarts, rowNums.length + 1);
+            }
+            date1904 = row.isDate1904();
+            rowNums[rows] = row.getRowNum();
+            rowStarts[rows++] = cells;
+            for (int col = 0; col < row.getWidth(); col++) {
+                CellType type = row.getCellType(col);
+                if (type != null) {
+                    addCell(col, type, type == CellType.STRING ? strings.computeIfAbsent(row.getString(col), s -> strings.size())
+                            : row.getNumber(col));
+                }
+            }
+        }
+
+        private void addCell(int col, CellType type, double number) {
+            if (cells == cols.length) {
+                cols = Arrays.copyOf(cols, cells * 2);
+                types = Arrays.copyOf(types, cells * 2);
+                numbers = Arrays.copyOf(numbers, cells * 2);
+            }
+            cols[cells] = (short) col;
+            types[cells] = (byte) type.ordinal();
+            numbers[cells++] = number;
+        }
+    }
+}
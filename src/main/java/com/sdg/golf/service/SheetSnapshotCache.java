@@ -0,0 +1,110 @@
+package com.sdg.golf.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Holds the sheets parsed from workbook files so that the weeks and matchups imports, and repeat imports of an
+ * unchanged workbook, visit a {@link SheetSnapshot} instead of unzipping and parsing the workbook again. A snapshot
+ * is reused while the file's size and modified time are unchanged, and also when they have changed but the file's
+ * content hash has not, as when a workbook is copied over with the same bytes. The least recently used snapshots
+ * are evicted once together they hold more than {@code import.sheet-cache.max-size}.
+ */
+@Component
+public class SheetSnapshotCache {
+    private final long maxBytes;
+    private final Map<Key, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long bytes;
+    private long hits;
+    private long misses;
+
+    public SheetSnapshotCache(@Value("${import.sheet-cache.max-size:16MB}") DataSize maxSize) {
+        this.maxBytes = maxSize.toBytes();
+    }
+
+    /**
+     * @param loader parses the sheet when there is no snapshot of it for the file as it is now
+     */
+    public SheetSnapshot get(Path file, String sheetName, ReferenceDataCache.Loader<SheetSnapshot> loader) throws IOException {
+        Key key = new Key(file.toAbsolutePath().normalize(), sheetName);
+        BasicFileAttributes attributes = Files.readAttributes(key.file(), BasicFileAttributes.class);
+        long modifiedMillis = attributes.lastModifiedTime().toMillis();
+        long size = attributes.size();
+        synchronized (entries) {
+            Entry entry = entries.get(key);
+            if (entry != null && entry.modifiedMillis() == modifiedMillis && entry.size() == size) {
+                hits++;
+                return entry.snapshot();
+            }
+        }
+        String contentHash = hash(key.file());
+        synchronized (entries) {
+            Entry entry = entries.get(key);
+            if (entry != null && entry.contentHash().equals(contentHash)) {
+                hits++;
+                entries.put(key, new Entry(modifiedMillis, size, contentHash, entry.snapshot()));
+                return entry.snapshot();
+            }
+            misses++;
+        }
+        SheetSnapshot snapshot = loader.load();
+        synchronized (entries) {
+            Entry replaced = entries.remove(key);
+            if (replaced != null) {
+                bytes -= replaced.snapshot().getSizeInBytes();
+            }
+            if (snapshot.getSizeInBytes() <= maxBytes) {
+                entries.put(key, new Entry(modifiedMillis, size, contentHash, snapshot));
+                bytes += snapshot.getSizeInBytes();
+                evict();
+            }
+        }
+        return snapshot;
+    }
+
+    public Stats getStats() {
+        synchronized (entries) {
+            return new Stats(hits, misses, entries.size(), bytes);
+        }
+    }
+
+    private void evict() {
+        Iterator<Entry> eldest = entries.values().iterator();
+        while (bytes > maxBytes && eldest.hasNext()) {
+            bytes -= eldest.next().snapshot().getSizeInBytes();
+            eldest.remove();
+        }
+    }
+
+    private static String hash(Path file) throws IOException {
+        MessageDigest digest = WorkbookReader.newDigest();
+        byte[] buffer = new byte[64 * 1024];
+        try (InputStream in = Files.newInputStream(file)) {
+            for (int read = in.read(buffer); read >= 0; read = in.read(buffer)) {
+                digest.update(buffer, 0, read);
+            }
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    /**
+     * @param bytes roughly how much heap the cached snapshots hold
+     */
+    public record Stats(long hits, long misses, int entries, long bytes) {}
+
+    private record Key(Path file, String sheetName) {}
+
+    private record Entry(long modifiedMillis, long size, String contentHash, SheetSnapshot snapshot) {}
+}
@@ -0,0 +1,33 @@
+package com.sdg.golf.service;
+
+import java.util.function.Consumer;
+
+/**
+ * Receives the rows of a workbook one sheet at a time, in workbook order.
+ */
+public interface SheetVisitor {
+
+    /**
+     * @return true when the rows of the sheet should be visited, false to skip the sheet without parsing it
+     */
+    boolean visitSheet(String sheetName);
+
+    void visitRow(SheetRow row);
+
+    default void endSheet() {
+    }
+
+    static SheetVisitor forSheet(String sheetName, Consumer<SheetRow> rowConsumer) {
+        return new SheetVisitor() {
+            @Override
+            public boolean visitSheet(String name) {
+                return sheetName.equals(name);
+            }
+
+            @Override
+            public void visitRow(SheetRow row) {
+                rowConsumer.accept(row);
+            }
+        };
+    }
+}
@@ -0,0 +1,349 @@
+package com.sdg.golf.service;
+
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackagePart;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.xml.sax.Attributes;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+import org.xml.sax.helpers.DefaultHandler;
+
+import javax.xml.XMLConstants;
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.parsers.SAXParserFactory;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Reads workbooks with the POI event model: each sheet's XML is streamed through a SAX handler straight into a
+ * reused {@link SheetRow}, so only the shared strings table is held in memory no matter how many sheets there are.
+ * {@link #mapSheets} parses sheets concurrently, each task reading its own part of the package.
+ */
+public class StreamingWorkbookReader implements WorkbookReader {
+    private static final byte[] CELL_START = bytes("<c ");
+    private static final byte[] TAG_END = bytes(">");
+    private static final byte[] CELL_END = bytes("</c>");
+    private static final byte[] VALUE_START = bytes("<v>");
+    private static final byte[] SHARED_STRING_TYPE = bytes(" t=\"s\"");
+
+    @Override
+    public void read(WorkbookSource source, SheetVisitor visitor, ReadListener listener) throws IOException {
+        long start = System.nanoTime();
+        OPCPackage pkg = null;
+        try {
+            pkg = source.open();
+            XSSFReader xssfReader = new XSSFReader(pkg);
+            ReadOnlySharedStringsTable sharedStrings = new ReadOnlySharedStringsTable(pkg);
+            SheetRow row = new SheetRow(isDate1904(xssfReader));
+            listener.workbookOpened(System.nanoTime() - start);
+            XSSFReader.SheetIterator sheets = (XSSFReader.SheetIterator) xssfReader.getSheetsData();
+            while (sheets.hasNext()) {
+                try (InputStream sheetData = sheets.next()) {
+                    if (visitor.visitSheet(sheets.getSheetName())) {
+                        long sheetStart = System.nanoTime();
+                        SheetHandler handler = new SheetHandler(sharedStrings, row, visitor::visitRow);
+                        parse(sheetData, handler);
+                        listener.sheetParsed(System.nanoTime() - sheetStart, handler.rows);
+                        visitor.endSheet();
+                    }
+                }
+            }
+        } catch (OpenXML4JException | SAXException e) {
+            throw new IOException("Unable to read workbook " + source.name(), e);
+        } finally {
+            if (pkg != null) {
+                source.release(pkg);
+            }
+        }
+    }
+
+    @Override
+    public <T> List<T> mapSheets(WorkbookSource source, Function<String, SheetTask<T>> taskFactory, Executor executor,
+                                 ReadListener listener) throws IOException {
+        long start = System.nanoTime();
+        OPCPackage pkg = null;
+        List<CompletableFuture<T>> futures = new ArrayList<>();
+        try {
+            pkg = source.open();
+            XSSFReader xssfReader = new XSSFReader(pkg);
+            ReadOnlySharedStringsTable sharedStrings = new ReadOnlySharedStringsTable(pkg);
+            boolean date1904 = isDate1904(xssfReader);
+            listener.workbookOpened(System.nanoTime() - start);
+            XSSFReader.SheetIterator sheets = (XSSFReader.SheetIterator) xssfReader.getSheetsData();
+            while (sheets.hasNext()) {
+                // the iterator always opens the sheet, each task re-opens its part on its own thread instead
+                sheets.next().close();
+                SheetTask<T> task = taskFactory.apply(sheets.getSheetName());
+                if (task != null) {
+                    PackagePart sheetPart = sheets.getSheetPart();
+                    futures.add(CompletableFuture.supplyAsync(
+                            () -> parseSheet(sheetPart, new SheetHandler(sharedStrings, new SheetRow(date1904), task::visitRow), task, listener),
+                            executor));
+                }
+            }
+            return joinAll(futures, source);
+        } catch (OpenXML4JException | SAXException e) {
+            throw new IOException("Unable to read workbook " + source.name(), e);
+        } finally {
+            // the executor is shared, so the tasks already started are waited for here before their package goes
+            CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).exceptionally(e -> null).join();
+            if (pkg != null) {
+                source.release(pkg);
+            }
+        }
+    }
+
+    /**
+     * Digests each sheet's XML as stored, without parsing it, along with the text of the shared strings its cells
+     * point at. A sheet only holds indexes into the shared strings table, so the text is what tells an edited
+     * name apart when the index stays the same.
+     */
+    @Override
+    public Map<String, String> digestSheets(WorkbookSource source) throws IOException {
+        OPCPackage pkg = null;
+        try {
+            pkg = source.open();
+            XSSFReader xssfReader = new XSSFReader(pkg);
+            ReadOnlySharedStringsTable sharedStrings = new ReadOnlySharedStringsTable(pkg);
+            Map<String, String> digests = new LinkedHashMap<>();
+            XSSFReader.SheetIterator sheets = (XSSFReader.SheetIterator) xssfReader.getSheetsData();
+            while (sheets.hasNext()) {
+                byte[] xml;
+                try (InputStream sheetData = sheets.next()) {
+                    xml = sheetData.readAllBytes();
+                }
+                MessageDigest digest = WorkbookReader.newDigest();
+                digest.update(xml);
+                digestSharedStrings(xml, sharedStrings, digest);
+                digests.put(sheets.getSheetName(), HexFormat.of().formatHex(digest.digest()));
+            }
+            return digests;
+        } catch (OpenXML4JException | SAXException e) {
+            throw new IOException("Unable to read workbook " + source.name(), e);
+        } finally {
+            if (pkg != null) {
+                source.release(pkg);
+            }
+        }
+    }
+
+    /**
+     * Finds the shared string cells by scanning for {@code <c ... t="s">} and the {@code <v>} index that follows.
+     */
+    private void digestSharedStrings(byte[] xml, ReadOnlySharedStringsTable sharedStrings, MessageDigest digest) {
+        int pos = 0;
+        while ((pos = indexOf(xml, CELL_START, pos, xml.length)) >= 0) {
+            int tagEnd = indexOf(xml, TAG_END, pos, xml.length);
+            if (tagEnd < 0) {
+                return;
+            }
+            if (xml[tagEnd - 1] != '/' && indexOf(xml, SHARED_STRING_TYPE, pos, tagEnd) >= 0) {
+                int cellEnd = indexOf(xml, CELL_END, tagEnd, xml.length);
+                int value = indexOf(xml, VALUE_START, tagEnd, cellEnd < 0 ? xml.length : cellEnd);
+                if (value >= 0) {
+                    int index = 0;
+                    for (int i = value + VALUE_START.length; i < xml.length && xml[i] >= '0' && xml[i] <= '9'; i++) {
+                        index = index * 10 + xml[i] - '0';
+                    }
+                    digest.update(bytes(sharedStrings.getItemAt(index).getString()));
+                    digest.update((byte) 0);
+                }
+            }
+            pos = tagEnd;
+        }
+    }
+
+    private static int indexOf(byte[] data, byte[] pattern, int from, int to) {
+        for (int i = from; i <= to - pattern.length; i++) {
+            int j = 0;
+            while (j < pattern.length && data[i + j] == pattern[j]) {
+                j++;
+            }
+            if (j == pattern.length) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static byte[] bytes(String s) {
+        return s.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private <T> T parseSheet(PackagePart sheetPart, SheetHandler handler, SheetTask<T> task, ReadListener listener) {
+        long start = System.nanoTime();
+        try (InputStream sheetData = sheetPart.getInputStream()) {
+            parse(sheetData, handler);
+        } catch (IOException | SAXException e) {
+            throw new CompletionException(e);
+        }
+        listener.sheetParsed(System.nanoTime() - start, handler.rows);
+        return task.result();
+    }
+
+    /**
+     * Waits for every task, even after one has failed, so that none is still reading when the package is released.
+     */
+    private <T> List<T> joinAll(List<CompletableFuture<T>> futures, WorkbookSource source) throws IOException {
+        List<T> results = new ArrayList<>(futures.size());
+        Throwable failure = null;
+        for (CompletableFuture<T> future : futures) {
+            try {
+                results.add(future.join());
+            } catch (CompletionException e) {
+                failure = failure == null ? e.getCause() : failure;
+            }
+        }
+        if (failure instanceof IOException ioException) {
+            throw ioException;
+        } else if (failure instanceof RuntimeException runtimeException) {
+            throw runtimeException;
+        } else if (failure != null) {
+            throw new IOException("Unable to read workbook " + source.name(), failure);
+        }
+        return results;
+    }
+
+    private boolean isDate1904(XSSFReader xssfReader) throws IOException, OpenXML4JException, SAXException {
+        boolean[] date1904 = new boolean[1];
+        try (InputStream workbookData = xssfReader.getWorkbookData()) {
+            parse(workbookData, new DefaultHandler() {
+                @Override
+                public void startElement(String uri, String localName, String qName, Attributes attributes) {
+                    if ("workbookPr".equals(localName)) {
+                        String value = attributes.getValue("date1904");
+                        date1904[0] = "1".equals(value) || "true".equalsIgnoreCase(value);
+                    }
+                }
+            });
+        }
+        return date1904[0];
+    }
+
+    private void parse(InputStream xml, DefaultHandler handler) throws IOException, SAXException {
+        XMLReader xmlReader = newXMLReader();
+        xmlReader.setContentHandler(handler);
+        xmlReader.parse(new InputSource(xml));
+    }
+
+    private XMLReader newXMLReader() throws SAXException {
+        try {
+            SAXParserFactory factory = SAXParserFactory.newInstance();
+            factory.setNamespaceAware(true);
+            factory.setFeature(XMLConstants.FEATURE_SECURE_PROCESSING, true);
+            factory.setFeature("http://apache.org/xml/features/disallow-doctype-decl", true);
+            return factory.newSAXParser().getXMLReader();
+        } catch (ParserConfigurationException e) {
+            throw new SAXException(e);
+        }
+    }
+
+    static int columnIndex(String cellReference) {
+        int col = 0;
+        for (int i = 0; i < cellReference.length(); i++) {
+            char c = cellReference.charAt(i);
+            if (c < 'A' || c > 'Z') {
+                break;
+            }
+            col = col * 26 + (c - 'A' + 1);
+        }
+        return col - 1;
+    }
+
+    private static class SheetHandler extends DefaultHandler {
+        private final ReadOnlySharedStringsTable sharedStrings;
+        private final SheetRow row;
+        private final Consumer<SheetRow> rowConsumer;
+        private final StringBuilder value = new StringBuilder();
+        private int rows;
+        private int rowNum = -1;
+        private int col = -1;
+        private String cellType;
+        private boolean hasValue;
+        private boolean capturing;
+
+        SheetHandler(ReadOnlySharedStringsTable sharedStrings, SheetRow row, Consumer<SheetRow> rowConsumer) {
+            this.sharedStrings = sharedStrings;
+            this.row = row;
+            this.rowConsumer = rowConsumer;
+        }
+
+        @Override
+        public void startElement(String uri, String localName, String qName, Attributes attributes) {
+            switch (localName) {
+                case "row" -> {
+                    String r = attributes.getValue("r");
+                    rowNum = r != null ? Integer.parseInt(r) - 1 : rowNum + 1;
+                    row.reset(rowNum);
+                    col = -1;
+                }
+                case "c" -> {
+                    String r = attributes.getValue("r");
+                    col = r != null ? columnIndex(r) : col + 1;
+                    cellType = attributes.getValue("t");
+                    value.setLength(0);
+                    hasValue = false;
+                }
+                case "v", "t" -> {
+                    capturing = true;
+                    hasValue = true;
+                }
+                default -> {
+                }
+            }
+        }
+
+        @Override
+        public void characters(char[] ch, int start, int length) {
+            if (capturing) {
+                value.append(ch, start, length);
+            }
+        }
+
+        @Override
+        public void endElement(String uri, String localName, String qName) {
+            switch (localName) {
+                case "v", "t" -> capturing = false;
+                case "c" -> setCell();
+                case "row" -> {
+                    rows++;
+                    rowConsumer.accept(row);
+                }
+                default -> {
+                }
+            }
+        }
+
+        private void setCell() {
+            if (!hasValue) {
+                row.setBlank(col);
+                return;
+            }
+            if (cellType == null || "n".equals(cellType)) {
+                row.setNumber(col, Double.parseDouble(value.toString()));
+                return;
+            }
+            switch (cellType) {
+                case "s" -> row.setString(col, sharedStrings.getItemAt(Integer.parseInt(value.toString())).getString());
+                case "str", "inlineStr" -> row.setString(col, value.toString());
+                case "b" -> row.setBoolean(col, "1".equals(value.toString()));
+                default -> row.setError(col);
+            }
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.sdg.golf.service;
+
+import java.io.IOException;
+
+/**
+ * Thrown when an uploaded workbook is refused before it is imported.
+ */
+public class UploadRejectedException extends IOException {
+    public enum Reason { TOO_LARGE, NOT_XLSX }
+
+    private final Reason reason;
+
+    public UploadRejectedException(Reason reason, String message) {
+        this(reason, message, null);
+    }
+
+    public UploadRejectedException(Reason reason, String message, Throwable cause) {
+        super(message, cause);
+        this.reason = reason;
+    }
+
+    public Reason getReason() {
+        return reason;
+    }
+}
@@ -0,0 +1,167 @@
+package com.sdg.golf.service;
+
+import org.apache.commons.compress.archivers.zip.ZipArchiveInputStream;
+import org.apache.poi.UnsupportedFileFormatException;
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.exceptions.OpenXML4JRuntimeException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.util.ZipArchiveThresholdInputStream;
+import org.apache.poi.openxml4j.util.ZipInputStreamZipEntrySource;
+
+import java.io.Closeable;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PushbackInputStream;
+import java.util.Arrays;
+import java.util.zip.ZipException;
+
+/**
+ * A workbook read straight from an upload's request stream instead of a file on the server. The package is opened
+ * from the stream as it arrives with nothing written to disk; POI keeps the zip entries in memory, a zip's directory
+ * being at its end, and every read of the workbook shares the one package until it is closed. The stream is refused
+ * once it passes the size limit and straight away when it does not start like an xlsx (zip) file. As the entries are
+ * held inflated, the upload is also refused once they inflate past their own limit, or once an entry inflates more
+ * than 50 times over, so a small body cannot take up much more heap than the size limits allow.
+ */
+public class UploadedWorkbook implements WorkbookSource, Closeable {
+    private static final byte[] ZIP_SIGNATURE = {'P', 'K', 3, 4};
+    private static final long GRACE_ENTRY_SIZE = 100 * 1024;
+    private static final double MIN_INFLATE_RATIO = 0.02;
+
+    private final String name;
+    private final OPCPackage pkg;
+
+    private UploadedWorkbook(String name, OPCPackage pkg) {
+        this.name = name;
+        this.pkg = pkg;
+    }
+
+    /**
+     * @param maxBytes         the most that will be read from the stream
+     * @param maxInflatedBytes the most the workbook's entries may inflate to altogether
+     */
+    public static UploadedWorkbook read(String name, InputStream in, long maxBytes, long maxInflatedBytes) throws IOException {
+        LimitedInputStream limited = new LimitedInputStream(in, maxBytes);
+        PushbackInputStream body = new PushbackInputStream(limited, ZIP_SIGNATURE.length);
+        byte[] signature = body.readNBytes(ZIP_SIGNATURE.length);
+        if (!Arrays.equals(signature, ZIP_SIGNATURE)) {
+            throw new UploadRejectedException(UploadRejectedException.Reason.NOT_XLSX, name + " is not an xlsx workbook");
+        }
+        body.unread(signature);
+        InflationLimitedZipStream entries = new InflationLimitedZipStream(body, maxInflatedBytes);
+        try {
+            return new UploadedWorkbook(name, OPCPackage.open(new ZipInputStreamZipEntrySource(new ZipArchiveThresholdInputStream(entries))));
+        } catch (IOException e) {
+            if (!limited.exceeded && entries.exceeded == null && !(e instanceof ZipException)) {
+                throw e;
+            }
+            throw rejected(name, maxBytes, limited, entries, e);
+        } catch (OpenXML4JException | OpenXML4JRuntimeException | UnsupportedFileFormatException e) {
+            throw rejected(name, maxBytes, limited, entries, e);
+        }
+    }
+
+    private static UploadRejectedException rejected(String name, long maxBytes, LimitedInputStream limited,
+                                                    InflationLimitedZipStream entries, Exception e) {
+        if (limited.exceeded) {
+            return new UploadRejectedException(UploadRejectedException.Reason.TOO_LARGE, "%s is larger than %d bytes".formatted(name, maxBytes));
+        }
+        if (entries.exceeded != null) {
+            return new UploadRejectedException(UploadRejectedException.Reason.TOO_LARGE, name + " " + entries.exceeded);
+        }
+        return new UploadRejectedException(UploadRejectedException.Reason.NOT_XLSX, name + " is not an xlsx workbook", e);
+    }
+
+    @Override
+    public String name() {
+        return name;
+    }
+
+    @Override
+    public OPCPackage open() {
+        return pkg;
+    }
+
+    /**
+     * Leaves the package open for the next read, it is released on {@link #close()}.
+     */
+    @Override
+    public void release(OPCPackage pkg) {
+    }
+
+    @Override
+    public void close() {
+        pkg.revert();
+    }
+
+    private static class LimitedInputStream extends FilterInputStream {
+        private final long maxBytes;
+        private long bytesRead;
+        private boolean exceeded;
+
+        LimitedInputStream(InputStream in, long maxBytes) {
+            super(in);
+            this.maxBytes = maxBytes;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                count(1);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = super.read(b, off, len);
+            if (n > 0) {
+                count(n);
+            }
+            return n;
+        }
+
+        private void count(int n) throws IOException {
+            bytesRead += n;
+            if (bytesRead > maxBytes) {
+                exceeded = true;
+                throw new IOException("Upload is larger than %d bytes".formatted(maxBytes));
+            }
+        }
+    }
+
+    /**
+     * Counts what the zip entries inflate to as POI reads them, checking the ratio the way POI's own zip bomb check
+     * does but more strictly, so that the upload is refused here first.
+     */
+    private static class InflationLimitedZipStream extends ZipArchiveInputStream {
+        private final long maxInflatedBytes;
+        private long inflatedBytes;
+        private String exceeded;
+
+        InflationLimitedZipStream(InputStream in, long maxInflatedBytes) {
+            super(in);
+            this.maxInflatedBytes = maxInflatedBytes;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = super.read(b, off, len);
+            if (n > 0) {
+                inflatedBytes += n;
+                long entryBytes = getUncompressedCount();
+                if (inflatedBytes > maxInflatedBytes) {
+                    exceeded = "inflates to more than %d bytes".formatted(maxInflatedBytes);
+                } else if (entryBytes > GRACE_ENTRY_SIZE && (double) getCompressedCount() / entryBytes < MIN_INFLATE_RATIO) {
+                    exceeded = "has an entry inflating more than %d times over".formatted(Math.round(1 / MIN_INFLATE_RATIO));
+                }
+                if (exceeded != null) {
+                    throw new IOException("Upload " + exceeded);
+                }
+            }
+            return n;
+        }
+    }
+}
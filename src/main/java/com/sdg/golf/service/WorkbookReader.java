@@ -0,0 +1,129 @@
+package com.sdg.golf.service;
+
+import org.apache.poi.ss.usermodel.CellType;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+
+public interface WorkbookReader {
+
+    default void read(Path path, SheetVisitor visitor) throws IOException {
+        read(WorkbookSource.of(path), visitor, ReadListener.NONE);
+    }
+
+    default void read(Path path, SheetVisitor visitor, ReadListener listener) throws IOException {
+        read(WorkbookSource.of(path), visitor, listener);
+    }
+
+    void read(WorkbookSource source, SheetVisitor visitor, ReadListener listener) throws IOException;
+
+    default <T> List<T> mapSheets(Path path, Function<String, SheetTask<T>> taskFactory, Executor executor) throws IOException {
+        return mapSheets(WorkbookSource.of(path), taskFactory, executor, ReadListener.NONE);
+    }
+
+    /**
+     * Runs a {@link SheetTask} over every sheet the factory returns one for and collects the task results in
+     * workbook order. Implementations may run the tasks concurrently on the executor, so each task must only
+     * touch its own state; this default runs them one after another on the calling thread.
+     *
+     * @param taskFactory returns the task for a sheet name, or null to skip the sheet
+     */
+    default <T> List<T> mapSheets(WorkbookSource source, Function<String, SheetTask<T>> taskFactory, Executor executor,
+                                  ReadListener listener) throws IOException {
+        List<T> results = new ArrayList<>();
+        read(source, new SheetVisitor() {
+            private SheetTask<T> task;
+
+            @Override
+            public boolean visitSheet(String sheetName) {
+                task = taskFactory.apply(sheetName);
+                return task != null;
+            }
+
+            @Override
+            public void visitRow(SheetRow row) {
+                task.visitRow(row);
+            }
+
+            @Override
+            public void endSheet() {
+                results.add(task.result());
+            }
+        }, listener);
+        return results;
+    }
+
+    /**
+     * A digest of each sheet's content, in workbook order, that changes whenever a cell of the sheet does. The
+     * digests of one implementation are only comparable with each other. This default parses every sheet to digest
+     * its cells, implementations should do it without parsing.
+     */
+    default Map<String, String> digestSheets(WorkbookSource source) throws IOException {
+        Map<String, String> digests = new LinkedHashMap<>();
+        read(source, new SheetVisitor() {
+            private String sheetName;
+            private MessageDigest digest;
+
+            @Override
+            public boolean visitSheet(String sheetName) {
+                this.sheetName = sheetName;
+                digest = newDigest();
+                return true;
+            }
+
+            @Override
+            public void visitRow(SheetRow row) {
+                StringBuilder cells = new StringBuilder().append(row.getRowNum());
+                for (int col = 0; col < row.getWidth(); col++) {
+                    cells.append('|').append(row.getCellType(col)).append(':');
+                    cells.append(row.getCellType(col) == CellType.STRING ? row.getString(col) : row.getNumber(col));
+                }
+                digest.update(cells.append('\n').toString().getBytes(StandardCharsets.UTF_8));
+            }
+
+            @Override
+            public void endSheet() {
+                digests.put(sheetName, HexFormat.of().formatHex(digest.digest()));
+            }
+        }, ReadListener.NONE);
+        return digests;
+    }
+
+    static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    interface SheetTask<T> {
+        void visitRow(SheetRow row);
+
+        T result();
+    }
+
+    /**
+     * Told how long the workbook took to open and each visited sheet took to parse, not counting the time spent
+     * in the visitor or task once a sheet has been read.
+     */
+    interface ReadListener {
+        ReadListener NONE = new ReadListener() {};
+
+        default void workbookOpened(long nanos) {
+        }
+
+        default void sheetParsed(long nanos, int rows) {
+        }
+    }
+}
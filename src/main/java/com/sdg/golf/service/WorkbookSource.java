@@ -0,0 +1,48 @@
+package com.sdg.golf.service;
+
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Where a {@link WorkbookReader} reads a workbook from: a file on the server or an {@link UploadedWorkbook}.
+ */
+public interface WorkbookSource {
+
+    /**
+     * @return what to call the workbook in messages
+     */
+    String name();
+
+    /**
+     * Opens the workbook's package for reading, handed back to {@link #release} once read.
+     */
+    OPCPackage open() throws IOException, OpenXML4JException;
+
+    void release(OPCPackage pkg);
+
+    static WorkbookSource of(Path path) {
+        return new FileSource(path);
+    }
+
+    record FileSource(Path path) implements WorkbookSource {
+        @Override
+        public String name() {
+            return path.toString();
+        }
+
+        @Override
+        public OPCPackage open() throws OpenXML4JException {
+            return OPCPackage.open(path.toFile(), PackageAccess.READ);
+        }
+
+        @Override
+        public void release(OPCPackage pkg) {
+            // closing a package opened for READ logs a warning, revert releases it without saving
+            pkg.revert();
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.sdg.golf.service;
+
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellType;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+
+import java.io.IOException;
+
+/**
+ * Reads workbooks by loading the whole {@link XSSFWorkbook} into memory. Kept as the reference implementation
+ * for {@link StreamingWorkbookReader}.
+ */
+public class XSSFWorkbookReader implements WorkbookReader {
+
+    @Override
+    public void read(WorkbookSource source, SheetVisitor visitor, ReadListener listener) throws IOException {
+        long start = System.nanoTime();
+        OPCPackage pkg = null;
+        try {
+            pkg = source.open();
+            // not closed, closing the workbook would close the package the source releases
+            XSSFWorkbook workbook = new XSSFWorkbook(pkg);
+            listener.workbookOpened(System.nanoTime() - start);
+            SheetRow sheetRow = new SheetRow(workbook.isDate1904());
+            for (Sheet sheet : workbook) {
+                if (visitor.visitSheet(sheet.getSheetName())) {
+                    long sheetStart = System.nanoTime();
+                    int rows = 0;
+                    for (Row row : sheet) {
+                        rows++;
+                        sheetRow.reset(row.getRowNum());
+                        for (Cell cell : row) {
+                            setCell(sheetRow, cell);
+                        }
+                        visitor.visitRow(sheetRow);
+                    }
+                    listener.sheetParsed(System.nanoTime() - sheetStart, rows);
+                    visitor.endSheet();
+                }
+            }
+        } catch (OpenXML4JException e) {
+            throw new IOException("Unable to read workbook " + source.name(), e);
+        } finally {
+            if (pkg != null) {
+                source.release(pkg);
+            }
+        }
+    }
+
+    private void setCell(SheetRow sheetRow, Cell cell) {
+        int col = cell.getColumnIndex();
+        CellType type = cell.getCellType() == CellType.FORMULA ? cell.getCachedFormulaResultType() : cell.getCellType();
+        switch (type) {
+            case STRING -> sheetRow.setString(col, cell.getStringCellValue());
+            case NUMERIC -> sheetRow.setNumber(col, cell.getNumericCellValue());
+            case BOOLEAN -> sheetRow.setBoolean(col, cell.getBooleanCellValue());
+            case BLANK -> sheetRow.setBlank(col);
+            default -> sheetRow.setError(col);
+        }
+    }
+}
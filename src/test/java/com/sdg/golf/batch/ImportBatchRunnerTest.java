@@ -0,0 +1,71 @@
+package com.sdg.golf.batch;
+
+import com.sdg.golf.batch.ImportBatchRunner.BatchImport;
+import com.sdg.golf.service.HandicapService;
+import com.sdg.golf.service.ImportRoundService;
+import com.sdg.golf.service.ImportScoreService;
+import com.sdg.golf.service.ImportType;
+import com.sdg.golf.service.ImportWeekMatchService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.DefaultApplicationArguments;
+import org.springframework.boot.SpringApplication;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.core.env.SystemEnvironmentPropertySource;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ImportBatchRunnerTest {
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void parsesImportRequestsSeparatedByCommas() {
+        assertEquals(List.of(new BatchImport(ImportType.ROUNDS, "C:/golf/Score Card 2024.xlsx", 1, 2024),
+                        new BatchImport(ImportType.SCORES, "card.xlsx", 2, 2025)),
+                ImportBatchRunner.parse("rounds:C:/golf/Score Card 2024.xlsx:1:2024, SCORES:card.xlsx:2:2025,"));
+        assertThrows(IllegalArgumentException.class, () -> ImportBatchRunner.parse("rounds:card.xlsx:2024"));
+        assertThrows(IllegalArgumentException.class, () -> ImportBatchRunner.parse("season:card.xlsx:1:2024"));
+        assertThrows(IllegalArgumentException.class, () -> ImportBatchRunner.parse(" "));
+    }
+
+    @Test
+    void anImportBatchSetOutsideTheCommandLineIsABatchRunToo() {
+        StandardEnvironment fromEnvironmentVariable = new StandardEnvironment();
+        fromEnvironmentVariable.getPropertySources().addFirst(new SystemEnvironmentPropertySource("test",
+                Map.of("IMPORT_BATCH", "rounds:card.xlsx:1:2024", "SPRING_MAIN_BANNER_MODE", "console")));
+        new ImportBatchEnvironmentPostProcessor().postProcessEnvironment(fromEnvironmentVariable, new SpringApplication());
+
+        assertTrue(ImportBatchRunner.isBatch(fromEnvironmentVariable));
+        assertEquals("none", fromEnvironmentVariable.getProperty("spring.main.web-application-type"));
+        assertEquals("true", fromEnvironmentVariable.getProperty("spring.main.lazy-initialization"));
+        assertEquals("console", fromEnvironmentVariable.getProperty("spring.main.banner-mode"));
+
+        for (String batch : new String[] {null, "false"}) {
+            StandardEnvironment web = new StandardEnvironment();
+            web.getPropertySources().addFirst(new MapPropertySource("test", batch == null ? Map.of() : Map.of("import.batch", batch)));
+            new ImportBatchEnvironmentPostProcessor().postProcessEnvironment(web, new SpringApplication());
+
+            assertFalse(ImportBatchRunner.isBatch(web));
+            assertFalse(web.getPropertySources().contains(ImportBatchEnvironmentPostProcessor.PROPERTY_SOURCE_NAME));
+        }
+    }
+
+    @Test
+    void exitsWithAnErrorCodeWhenAnImportFails() {
+        ImportRoundService importRoundService = new ImportRoundService();
+        ImportBatchRunner runner = new ImportBatchRunner(new ImportWeekMatchService(), importRoundService,
+                new ImportScoreService(importRoundService, new HandicapService(importRoundService)),
+                "rounds:%s:1:2024".formatted(tempDir.resolve("missing.xlsx")));
+        assertEquals(0, runner.getExitCode());
+
+        runner.run(new DefaultApplicationArguments());
+
+        assertEquals(1, runner.getExitCode());
+    }
+}
@@ -0,0 +1,62 @@
+package com.sdg.golf.controller;
+
+import com.sdg.golf.controller.ImportController.ImportRequest;
+import com.sdg.golf.service.HandicapService;
+import com.sdg.golf.service.ImportJob;
+import com.sdg.golf.service.ImportJobService;
+import com.sdg.golf.service.ImportProgress;
+import com.sdg.golf.service.ImportRoundService;
+import com.sdg.golf.service.ImportScoreService;
+import com.sdg.golf.service.ImportSeasonService;
+import com.sdg.golf.service.ImportWeekMatchService;
+import com.sdg.golf.service.LeagueRegistry;
+import com.sdg.golf.service.ReferenceDataCache;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ImportJobControllerTest {
+
+    @Test
+    void aFullJobQueueIsRefusedWith503() throws Exception {
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ImportWeekMatchService importWeekMatchService = new ImportWeekMatchService() {
+            @Override
+            public void importWeeks(String fileName, int seasonId, int year, ImportProgress progress) throws IOException {
+                running.countDown();
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        };
+        ImportRoundService importRoundService = new ImportRoundService();
+        HandicapService handicapService = new HandicapService(importRoundService);
+        LeagueRegistry leagueRegistry = new LeagueRegistry(importWeekMatchService, importRoundService,
+                new ImportScoreService(importRoundService, handicapService), new ImportSeasonService(importWeekMatchService, importRoundService),
+                handicapService, new ReferenceDataCache(4), "", 4, 1, 1, 1, 1);
+        ImportJobController controller = new ImportJobController(new ImportJobService(10), leagueRegistry);
+        ImportRequest request = new ImportRequest("matchups.xlsx", 1, 2024, null);
+        try {
+            ImportJob.Status running1 = controller.importWeeks(request);
+            assertTrue(running.await(5, TimeUnit.SECONDS));
+            assertEquals(ImportJob.State.QUEUED, controller.importWeeks(request).state());
+
+            ResponseStatusException full = assertThrows(ResponseStatusException.class, () -> controller.importWeeks(request));
+            assertEquals(HttpStatus.SERVICE_UNAVAILABLE, full.getStatusCode());
+            assertEquals(running1.id(), controller.getStatus(running1.id()).id());
+            ResponseStatusException unknown = assertThrows(ResponseStatusException.class, () -> controller.getStatus("no-such-job"));
+            assertEquals(HttpStatus.NOT_FOUND, unknown.getStatusCode());
+        } finally {
+            release.countDown();
+        }
+    }
+}
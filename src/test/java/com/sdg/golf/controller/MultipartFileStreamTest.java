@@ -0,0 +1,67 @@
+package com.sdg.golf.controller;
+
+import com.sdg.golf.service.UploadRejectedException;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MultipartFileStreamTest {
+    private static final String BOUNDARY = "----boundary42";
+
+    @Test
+    void readsTheFilePartAfterOtherFields() throws Exception {
+        // line breaks and dashes that only partly look like the boundary
+        String pattern = "PK\r\n--\r\n----boundary4x";
+        byte[] file = new byte[50_000];
+        for (int i = 0; i < file.length; i++) {
+            file[i] = (byte) pattern.charAt(i % pattern.length());
+        }
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        body.writeBytes(("--" + BOUNDARY + "\r\nContent-Disposition: form-data; name=\"year\"\r\n\r\n2024\r\n"
+                + "--" + BOUNDARY + "\r\nContent-Disposition: form-data; name=\"file\"; filename=\"League 2024.xlsx\"\r\n"
+                + "Content-Type: application/octet-stream\r\n\r\n").getBytes(StandardCharsets.US_ASCII));
+        body.writeBytes(file);
+        body.writeBytes(("\r\n--" + BOUNDARY + "--\r\n").getBytes(StandardCharsets.US_ASCII));
+
+        MultipartFileStream part = MultipartFileStream.open(new TrickleInputStream(body.toByteArray()), "\"" + BOUNDARY + "\"", 1024);
+
+        assertEquals("League 2024.xlsx", part.getFileName());
+        assertArrayEquals(file, part.readAllBytes());
+    }
+
+    @Test
+    void rejectsARequestWithoutAFilePart() {
+        byte[] body = ("--" + BOUNDARY + "\r\nContent-Disposition: form-data; name=\"year\"\r\n\r\n2024\r\n--" + BOUNDARY + "--\r\n")
+                .getBytes(StandardCharsets.US_ASCII);
+        UploadRejectedException e = assertThrows(UploadRejectedException.class,
+                () -> MultipartFileStream.open(new ByteArrayInputStream(body), BOUNDARY, 1024));
+        assertEquals(UploadRejectedException.Reason.NOT_XLSX, e.getReason());
+    }
+
+    /**
+     * Hands out a few bytes at a time, the way a slow upload arrives, so the boundary is split across reads.
+     */
+    private static class TrickleInputStream extends InputStream {
+        private final ByteArrayInputStream in;
+
+        TrickleInputStream(byte[] bytes) {
+            in = new ByteArrayInputStream(bytes);
+        }
+
+        @Override
+        public int read() {
+            return in.read();
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            return in.read(b, off, Math.min(len, 7));
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.sdg.golf.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class AtomicFileRowSinkTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void commitReplacesTargetWithHeaderAndRows() throws Exception {
+        Path target = Files.writeString(tempDir.resolve("round-2024.txt"), "old");
+        try (RowSink sink = new AtomicFileRowSink(target, "player_id,match_id,team_id,handicap")) {
+            sink.field(18).field(43).field(8).field(10.0).endRow();
+            sink.row("4,43,2,4.0");
+            sink.commit();
+            assertEquals(2, sink.getRowsWritten());
+        }
+        String nl = System.lineSeparator();
+        assertEquals("player_id,match_id,team_id,handicap" + nl + "18,43,8,10.0" + nl + "4,43,2,4.0", Files.readString(target));
+        try (var files = Files.list(tempDir)) {
+            assertEquals(1, files.count());
+        }
+    }
+
+    @Test
+    void closeWithoutCommitKeepsPreviousTarget() throws Exception {
+        Path target = Files.writeString(tempDir.resolve("match-2024.txt"), "week_id,team_1,team_2");
+        try (RowSink sink = new AtomicFileRowSink(target, "week_id,team_1,team_2")) {
+            sink.row("1,6,2");
+        }
+        assertEquals("week_id,team_1,team_2", Files.readString(target));
+        try (var files = Files.list(tempDir)) {
+            assertEquals(1, files.count());
+        }
+    }
+
+    @Test
+    void committedFileIsReadableByWhoeverCouldReadTheTarget() throws Exception {
+        assumeTrue(FileSystems.getDefault().supportedFileAttributeViews().contains("posix"));
+        Path target = Files.writeString(tempDir.resolve("week-2024.txt"), "old");
+        Files.setPosixFilePermissions(target, PosixFilePermissions.fromString("rw-r--r--"));
+        try (RowSink sink = new AtomicFileRowSink(target, "week_id,date")) {
+            sink.commit();
+        }
+        assertEquals(PosixFilePermissions.fromString("rw-r--r--"), Files.getPosixFilePermissions(target));
+
+        Path newTarget = tempDir.resolve("match-2024.txt");
+        try (RowSink sink = new AtomicFileRowSink(newTarget, "week_id,team_1,team_2")) {
+            sink.commit();
+        }
+        Path plainFile = Files.createFile(tempDir.resolve("plain.txt"));
+        assertEquals(Files.getPosixFilePermissions(plainFile), Files.getPosixFilePermissions(newTarget));
+    }
+}
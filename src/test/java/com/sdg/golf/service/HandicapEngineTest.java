@@ -0,0 +1,30 @@
+package com.sdg.golf.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HandicapEngineTest {
+
+    @Test
+    void handicapIsWorkedOutFromTheMostRecentRounds() {
+        HandicapEngine engine = new HandicapEngine(3, 36, 0.5);
+        assertEquals(0, engine.getRounds(1000));
+        assertTrue(Double.isNaN(engine.getHandicap(1000)));
+
+        engine.record(1000, 40);
+        engine.record(1000, 44);
+        assertEquals(2, engine.getRounds(1000));
+        assertEquals(0.5 * (4 + 8) / 2, engine.getHandicap(1000), 1e-9);
+
+        HandicapEngine before = engine.copy();
+        engine.record(1000, 46);
+        engine.record(1000, 34);
+        engine.record(1000, 36);
+        assertEquals(3, engine.getRounds(1000));
+        assertEquals(0.5 * (10 - 2 + 0) / 3, engine.getHandicap(1000), 1e-9);
+        assertEquals(0.5 * (4 + 8) / 2, before.getHandicap(1000), 1e-9);
+        assertEquals(0, engine.getRounds(999));
+        assertTrue(engine.getPlayerIdLimit() > 1000);
+    }
+}
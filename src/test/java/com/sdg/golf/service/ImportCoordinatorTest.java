@@ -0,0 +1,115 @@
+package com.sdg.golf.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ImportCoordinatorTest {
+
+    @Test
+    void identicalImportsInFlightShareOneRun() throws Exception {
+        ImportCoordinator coordinator = new ImportCoordinator(8);
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger runs = new AtomicInteger();
+        List<Object> key = List.of(ImportType.ROUNDS, Path.of("card.xlsx"), 1, 2024);
+
+        try (ExecutorService executor = Executors.newFixedThreadPool(2)) {
+            Future<Integer> first = executor.submit(() -> coordinator.coalesce(key, () -> {
+                running.countDown();
+                release.await();
+                return runs.incrementAndGet();
+            }));
+            assertTrue(running.await(5, TimeUnit.SECONDS));
+            Future<Integer> second = executor.submit(() -> coordinator.coalesce(key, runs::incrementAndGet));
+            awaitCoalesced(coordinator);
+            release.countDown();
+
+            assertEquals(1, first.get(5, TimeUnit.SECONDS));
+            assertEquals(1, second.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(2, coordinator.coalesce(key, runs::incrementAndGet));
+    }
+
+    @Test
+    void aFailedImportFailsTheImportsWaitingForIt() throws Exception {
+        ImportCoordinator coordinator = new ImportCoordinator(8);
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        List<Object> key = List.of(ImportType.SCORES, Path.of("card.xlsx"), 1, 2024);
+
+        try (ExecutorService executor = Executors.newFixedThreadPool(2)) {
+            Future<IOException> first = executor.submit(() -> assertThrows(IOException.class, () -> coordinator.coalesce(key, () -> {
+                running.countDown();
+                release.await();
+                throw new IOException("bad card");
+            })));
+            assertTrue(running.await(5, TimeUnit.SECONDS));
+            Future<IOException> second = executor.submit(() ->
+                    assertThrows(IOException.class, () -> coordinator.coalesce(key, () -> "not run")));
+            awaitCoalesced(coordinator);
+            release.countDown();
+
+            assertEquals("bad card", first.get(5, TimeUnit.SECONDS).getMessage());
+            assertSame(first.get(), second.get(5, TimeUnit.SECONDS));
+        }
+    }
+
+    @Test
+    void importsWritingTheSameFileTakeTurnsWhileOthersRunAlongside() throws Exception {
+        ImportCoordinator coordinator = new ImportCoordinator(64);
+        Path round2024 = Path.of("round-2024.txt");
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger writing = new AtomicInteger();
+
+        try (ExecutorService executor = Executors.newFixedThreadPool(2)) {
+            Future<Integer> holder = executor.submit(() -> coordinator.withLocks(List.of(round2024), () -> {
+                writing.incrementAndGet();
+                locked.countDown();
+                release.await();
+                return writing.decrementAndGet();
+            }));
+            assertTrue(locked.await(5, TimeUnit.SECONDS));
+            Future<Integer> sameFile = executor.submit(() -> coordinator.withLocks(List.of(round2024), writing::get));
+            assertEquals(1, coordinator.withLocks(List.of(getPathOnAnotherStripe(round2024)), writing::get));
+            Thread.sleep(50);
+            assertFalse(sameFile.isDone());
+            release.countDown();
+
+            assertEquals(0, holder.get(5, TimeUnit.SECONDS));
+            assertEquals(0, sameFile.get(5, TimeUnit.SECONDS));
+        }
+    }
+
+    private static void awaitCoalesced(ImportCoordinator coordinator) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (coordinator.getCoalesced() == 0 && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        assertEquals(1, coordinator.getCoalesced());
+    }
+
+    /**
+     * Two files can share a stripe, so the file written alongside is one known not to share the first one's.
+     */
+    private static Path getPathOnAnotherStripe(Path path) {
+        int stripe = Math.floorMod(path.toAbsolutePath().normalize().hashCode(), 64);
+        for (int year = 2025; ; year++) {
+            Path other = Path.of("round-%s.txt".formatted(year));
+            if (Math.floorMod(other.toAbsolutePath().normalize().hashCode(), 64) != stripe) {
+                return other;
+            }
+        }
+    }
+}
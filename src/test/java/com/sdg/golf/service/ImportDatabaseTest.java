@@ -0,0 +1,203 @@
+package com.sdg.golf.service;
+
+import com.sdg.golf.service.ImportRoundService.SeasonRoundResult;
+import com.sdg.golf.service.LeagueGenerator.LeagueSpec;
+import com.sdg.golf.service.LeagueGenerator.Season;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ImportDatabaseTest {
+    private static final String URL = "jdbc:h2:mem:import-database-test;DB_CLOSE_DELAY=-1";
+
+    @TempDir
+    Path tempDir;
+
+    @BeforeEach
+    void createTables() throws Exception {
+        try (Connection connection = DriverManager.getConnection(URL); Statement statement = connection.createStatement()) {
+            statement.execute("drop all objects");
+            // ids start high so that ids assumed from insert order instead of read back would not match
+            statement.execute("create table week (id int generated by default as identity (start with 101) primary key, name varchar(20), date date, season_id int)");
+            statement.execute("create table match (id int generated by default as identity (start with 501) primary key, week_id int, team_1 int, team_2 int)");
+            statement.execute("create table player (id int primary key, first_name varchar(50), last_name varchar(50), email varchar(100), handicap double, phone varchar(20), team_id int)");
+            statement.execute("create table round (id int generated by default as identity primary key, player_id int, match_id int, team_id int, handicap double)");
+            statement.execute("create table score (player_id int, match_id int, hole int, strokes int)");
+        }
+    }
+
+    @Test
+    void importsSeasonUsingGeneratedIdsWithoutExtractFiles() throws Exception {
+        LeagueSpec spec = new LeagueSpec(12, 16, 3, 2, 1);
+        Season season = new LeagueGenerator(spec, tempDir).generate().getFirst();
+        insertPlayers(tempDir.resolve("player-extract-%s.txt".formatted(season.year())));
+        Files.delete(tempDir.resolve("week-extract-%s.txt".formatted(season.year())));
+        Files.delete(tempDir.resolve("match-extract-%s.txt".formatted(season.year())));
+        Files.delete(tempDir.resolve("player-extract-%s.txt".formatted(season.year())));
+
+        ImportDatabase importDatabase = new ImportDatabase(URL, "", "", 7);
+        ImportWeekMatchService importWeekMatchService = new ImportWeekMatchService();
+        ImportRoundService importRoundService = new ImportRoundService();
+        for (ImportService importService : List.of(importWeekMatchService, importRoundService)) {
+            importService.setFileRoot(tempDir.toString());
+            importService.setImportDatabase(importDatabase);
+        }
+
+        importWeekMatchService.importWeeks(season.matchupWorkbook().toString(), season.seasonId(), season.year());
+        importWeekMatchService.importMatchups(season.matchupWorkbook().toString(), season.seasonId(), season.year());
+        SeasonRoundResult result = importRoundService.importRounds(season.scoreCardWorkbook().toString(), season.seasonId(), season.year());
+
+        assertEquals(List.of(), result.getErrors());
+        assertEquals(spec.weeks(), count("select count(*) from week where id > 100 and season_id = 1"));
+        assertEquals(spec.weeks() * spec.matchesPerWeek(), count("select count(*) from match m join week w on m.week_id = w.id"));
+        assertEquals(spec.roundsPerSeason(), count("select count(*) from round r join match m on r.match_id = m.id"
+                + " where r.team_id in (m.team_1, m.team_2)"));
+        assertFalse(Files.exists(tempDir.resolve("round-%s.txt".formatted(season.year()))));
+    }
+
+    @Test
+    void matchImportReadsWeekIdsFromTableAfterRestart() throws Exception {
+        LeagueSpec spec = new LeagueSpec(12, 4, 3, 0, 1);
+        Season season = new LeagueGenerator(spec, tempDir).generate().getFirst();
+        ImportWeekMatchService importWeekMatchService = new ImportWeekMatchService();
+        importWeekMatchService.setFileRoot(tempDir.toString());
+        importWeekMatchService.setImportDatabase(new ImportDatabase(URL, "", "", 500));
+        importWeekMatchService.importWeeks(season.matchupWorkbook().toString(), season.seasonId(), season.year());
+
+        importWeekMatchService.setImportDatabase(new ImportDatabase(URL, "", "", 500));
+        importWeekMatchService.importMatchups(season.matchupWorkbook().toString(), season.seasonId(), season.year());
+
+        assertEquals(spec.weeks() * spec.matchesPerWeek(), count("select count(*) from match m join week w on m.week_id = w.id"));
+    }
+
+    @Test
+    void weekIdsChangedOutsideTheImportsAreSeenByTheNextImport() throws Exception {
+        LeagueSpec spec = new LeagueSpec(12, 4, 3, 0, 1);
+        Season season = new LeagueGenerator(spec, tempDir).generate().getFirst();
+        ImportWeekMatchService importWeekMatchService = new ImportWeekMatchService();
+        importWeekMatchService.setFileRoot(tempDir.toString());
+        importWeekMatchService.setImportDatabase(new ImportDatabase(URL, "", "", 500));
+        importWeekMatchService.importWeeks(season.matchupWorkbook().toString(), season.seasonId(), season.year());
+        try (Connection connection = DriverManager.getConnection(URL); Statement statement = connection.createStatement()) {
+            statement.execute("update week set id = id + 1000");
+        }
+
+        importWeekMatchService.importMatchups(season.matchupWorkbook().toString(), season.seasonId(), season.year());
+
+        assertEquals(spec.weeks() * spec.matchesPerWeek(), count("select count(*) from match where week_id > 1000"));
+    }
+
+    @Test
+    void roundsResolveAgainstTheIdsOfTheLastSeasonImport() throws Exception {
+        LeagueSpec spec = new LeagueSpec(12, 4, 3, 0, 1);
+        Season season = new LeagueGenerator(spec, tempDir).generate().getFirst();
+        insertPlayers(tempDir.resolve("player-extract-%s.txt".formatted(season.year())));
+        ImportDatabase importDatabase = new ImportDatabase(URL, "", "", 500);
+        ImportWeekMatchService importWeekMatchService = new ImportWeekMatchService();
+        ImportRoundService importRoundService = new ImportRoundService();
+        ImportSeasonService importSeasonService = new ImportSeasonService(importWeekMatchService, importRoundService);
+        for (ImportService importService : List.of(importWeekMatchService, importRoundService, importSeasonService)) {
+            importService.setFileRoot(tempDir.toString());
+            importService.setImportDatabase(importDatabase);
+        }
+        importWeekMatchService.importWeeks(season.matchupWorkbook().toString(), season.seasonId(), season.year());
+        importWeekMatchService.importMatchups(season.matchupWorkbook().toString(), season.seasonId(), season.year());
+
+        // the season import gives its own ids, below the generated ones the staged imports got
+        assertEquals(List.of(), importSeasonService.importSeason(season.matchupWorkbook().toString(), season.scoreCardWorkbook().toString(),
+                season.seasonId(), season.year(), 1, 1).errors());
+        assertEquals(List.of(), importRoundService.importRounds(season.scoreCardWorkbook().toString(), season.seasonId(), season.year()).getErrors());
+
+        assertEquals(spec.roundsPerSeason(), count("select count(*) from round where match_id < 501"));
+        assertEquals(spec.roundsPerSeason(), count("select count(*) from round"));
+    }
+
+    @Test
+    void importsRunAgainReplaceTheSeasonsRows() throws Exception {
+        LeagueSpec spec = new LeagueSpec(12, 4, 3, 0, 2);
+        List<Season> seasons = new LeagueGenerator(spec, tempDir).generate();
+        ImportDatabase importDatabase = new ImportDatabase(URL, "", "", 500);
+        ImportWeekMatchService importWeekMatchService = new ImportWeekMatchService();
+        ImportRoundService importRoundService = new ImportRoundService();
+        for (ImportService importService : List.of(importWeekMatchService, importRoundService)) {
+            importService.setFileRoot(tempDir.toString());
+            importService.setImportDatabase(importDatabase);
+        }
+        insertPlayers(tempDir.resolve("player-extract-%s.txt".formatted(seasons.getFirst().year())));
+        for (Season season : seasons) {
+            importWeekMatchService.importWeeks(season.matchupWorkbook().toString(), season.seasonId(), season.year());
+            importWeekMatchService.importMatchups(season.matchupWorkbook().toString(), season.seasonId(), season.year());
+            importRoundService.importRounds(season.scoreCardWorkbook().toString(), season.seasonId(), season.year());
+        }
+        Season first = seasons.getFirst();
+
+        importRoundService.importRounds(first.scoreCardWorkbook().toString(), first.seasonId(), first.year());
+        assertEquals(2 * spec.roundsPerSeason(), count("select count(*) from round"));
+
+        // new match ids leave the season's rounds pointing at nothing, so they go with the matches they were resolved against
+        importWeekMatchService.importMatchups(first.matchupWorkbook().toString(), first.seasonId(), first.year());
+        assertEquals(2 * spec.weeks() * spec.matchesPerWeek(), count("select count(*) from match"));
+        assertEquals(spec.roundsPerSeason(), count("select count(*) from round"));
+
+        importWeekMatchService.importWeeks(first.matchupWorkbook().toString(), first.seasonId(), first.year());
+        importWeekMatchService.importMatchups(first.matchupWorkbook().toString(), first.seasonId(), first.year());
+        importRoundService.importRounds(first.scoreCardWorkbook().toString(), first.seasonId(), first.year());
+        assertEquals(2 * spec.weeks(), count("select count(*) from week"));
+        assertEquals(2 * spec.weeks() * spec.matchesPerWeek(), count("select count(*) from match m join week w on m.week_id = w.id"));
+        assertEquals(2 * spec.roundsPerSeason(), count("select count(*) from round r join match m on r.match_id = m.id"));
+    }
+
+    @Test
+    void uncommittedRowsAreRolledBack() throws Exception {
+        try (RowSink sink = new ImportDatabase(URL, "", "", 2).openSink(ImportDatabase.ROUND_TABLE, "player_id,match_id,team_id,handicap")) {
+            for (int i = 0; i < 5; i++) {
+                sink.field(i).field(1).field(1).field(10.0).endRow();
+            }
+        }
+        assertEquals(0, count("select count(*) from round"));
+    }
+
+    @Test
+    void insertsIntoTablesAndColumnsNamedLikeKeywords() throws Exception {
+        try (Connection connection = DriverManager.getConnection(URL); Statement statement = connection.createStatement()) {
+            statement.execute("create table \"ORDER\" (\"VALUE\" int, \"DATE\" date)");
+        }
+        try (RowSink sink = new ImportDatabase(URL, "", "", 2).openSink("order", "value,date")) {
+            for (int i = 0; i < 3; i++) {
+                sink.field(i).field(LocalDate.of(2024, 5, 1 + i)).endRow();
+            }
+            sink.commit();
+        }
+        assertEquals(3, count("select count(*) from \"ORDER\" where \"VALUE\" < 3"));
+    }
+
+    private void insertPlayers(Path playerExtract) throws Exception {
+        try (Connection connection = DriverManager.getConnection(URL); Statement statement = connection.createStatement()) {
+            for (String line : Files.readAllLines(playerExtract)) {
+                String[] fields = line.split(",", -1);
+                statement.execute("insert into player values (%s, '%s', '%s', '%s', %s, null, %s)"
+                        .formatted(fields[0], fields[1], fields[2], fields[3], fields[4], fields[6]));
+            }
+        }
+    }
+
+    private int count(String sql) throws Exception {
+        try (Connection connection = DriverManager.getConnection(URL);
+             Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery(sql)) {
+            rs.next();
+            return rs.getInt(1);
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.sdg.golf.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ImportJobServiceTest {
+
+    @Test
+    void jobsRunQueuedThenFinishWithTheirErrors() throws Exception {
+        BlockingWeekMatchService weeks = new BlockingWeekMatchService();
+        League league = newLeague(weeks, 1, 1);
+        ImportJobService importJobService = new ImportJobService(10);
+        try {
+            ImportJob.Status first = importJobService.submit(league, ImportType.WEEKS, "matchups.xlsx", 1, 2024);
+            assertTrue(weeks.running.await(5, TimeUnit.SECONDS));
+            assertEquals(ImportJob.State.RUNNING, importJobService.getStatus(first.id()).orElseThrow().state());
+
+            ImportJob.Status second = importJobService.submit(league, ImportType.WEEKS, "bad.xlsx", 1, 2024);
+            assertEquals(ImportJob.State.QUEUED, second.state());
+            assertEquals(ImportJob.State.QUEUED, importJobService.getStatus(second.id()).orElseThrow().state());
+            assertThrows(RejectedExecutionException.class,
+                    () -> importJobService.submit(league, ImportType.WEEKS, "matchups.xlsx", 1, 2024));
+
+            weeks.release.countDown();
+            ImportJob.Status completed = awaitFinished(importJobService, first.id());
+            assertEquals(ImportJob.State.COMPLETED, completed.state());
+            assertEquals(List.of(), completed.errors());
+            ImportJob.Status failed = awaitFinished(importJobService, second.id());
+            assertEquals(ImportJob.State.FAILED, failed.state());
+            assertEquals(List.of("No such workbook bad.xlsx"), failed.errors());
+            assertEquals(Optional.empty(), importJobService.getStatus("no-such-job"));
+        } finally {
+            league.shutdown();
+        }
+    }
+
+    @Test
+    void finishedJobsPastTheLimitAreEvictedOldestFirst() throws Exception {
+        BlockingWeekMatchService weeks = new BlockingWeekMatchService();
+        weeks.release.countDown();
+        League league = newLeague(weeks, 1, 10);
+        ImportJobService importJobService = new ImportJobService(2);
+        try {
+            ImportJob.Status first = importJobService.submit(league, ImportType.WEEKS, "matchups.xlsx", 1, 2024);
+            awaitFinished(importJobService, first.id());
+            ImportJob.Status second = importJobService.submit(league, ImportType.WEEKS, "matchups.xlsx", 1, 2024);
+            awaitFinished(importJobService, second.id());
+            ImportJob.Status third = importJobService.submit(league, ImportType.WEEKS, "matchups.xlsx", 1, 2024);
+            awaitFinished(importJobService, third.id());
+
+            assertEquals(Optional.empty(), importJobService.getStatus(first.id()));
+            assertTrue(importJobService.getStatus(second.id()).isPresent());
+            assertTrue(importJobService.getStatus(third.id()).isPresent());
+        } finally {
+            league.shutdown();
+        }
+    }
+
+    static League newLeague(ImportWeekMatchService importWeekMatchService, int threads, int queueCapacity) {
+        ImportRoundService importRoundService = new ImportRoundService();
+        HandicapService handicapService = new HandicapService(importRoundService);
+        return new League("test", importWeekMatchService, importRoundService, new ImportScoreService(importRoundService, handicapService),
+                new ImportSeasonService(importWeekMatchService, importRoundService), handicapService, new ReferenceDataCache(4),
+                new League.Quota(1, 1), new League.Quota(threads, queueCapacity));
+    }
+
+    private static ImportJob.Status awaitFinished(ImportJobService importJobService, String jobId) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        ImportJob.Status status = importJobService.getStatus(jobId).orElseThrow();
+        while (!isFinished(status) && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+            status = importJobService.getStatus(jobId).orElseThrow();
+        }
+        assertTrue(isFinished(status), status.toString());
+        return status;
+    }
+
+    private static boolean isFinished(ImportJob.Status status) {
+        return status.state() == ImportJob.State.COMPLETED || status.state() == ImportJob.State.FAILED;
+    }
+
+    /**
+     * Holds every weeks import until released, failing the ones of bad.xlsx.
+     */
+    static class BlockingWeekMatchService extends ImportWeekMatchService {
+        final CountDownLatch running = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+
+        @Override
+        public void importWeeks(String fileName, int seasonId, int year, ImportProgress progress) throws IOException {
+            running.countDown();
+            try {
+                if (!release.await(5, TimeUnit.SECONDS)) {
+                    throw new IOException("Not released");
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted");
+            }
+            if (fileName.equals("bad.xlsx")) {
+                throw new IOException("No such workbook " + fileName);
+            }
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.sdg.golf.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ImportMetricsTest {
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void recordsPhasesTaggedByTypeAndYear() throws Exception {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        ImportMetrics.Recorder recorder = new ImportMetrics(registry).start(ImportType.ROUNDS, 2024);
+        recorder.workbookOpened(TimeUnit.MILLISECONDS.toNanos(5));
+        recorder.sheetParsed(TimeUnit.MILLISECONDS.toNanos(2), 40);
+        recorder.sheetParsed(TimeUnit.MILLISECONDS.toNanos(3), 60);
+        recorder.namesResolved(23, 1);
+        recorder.matchesUnresolved(2);
+        try (RowSink sink = new AtomicFileRowSink(tempDir.resolve("round-2024.txt"), "player_id")) {
+            sink.field(1).endRow();
+            sink.field(2).endRow();
+            sink.commit();
+            recorder.written(sink);
+        }
+        recorder.finished(true);
+
+        assertEquals(2, registry.get("import.sheet.parse").tags("type", "rounds", "year", "2024").timer().count());
+        assertEquals(100, registry.get("import.rows.parsed").counter().count());
+        assertEquals(23, registry.get("import.names.resolved").tag("result", "hit").counter().count());
+        assertEquals(1, registry.get("import.names.resolved").tag("result", "miss").counter().count());
+        assertEquals(2, registry.get("import.matches.unresolved").counter().count());
+        assertEquals(2, registry.get("import.rows.written").counter().count());
+        assertTrue(registry.get("import.bytes.written").counter().count() > 0);
+        assertEquals(1, registry.get("import.duration").tag("outcome", "success").timer().count());
+        assertNull(registry.find("import.duration").tag("outcome", "failure").timer());
+    }
+
+    @Test
+    void recordsTheDurationOfAFailedImport() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        ImportMetrics importMetrics = new ImportMetrics(registry);
+        importMetrics.start(ImportType.WEEKS, 2024).finished(false);
+        importMetrics.start(ImportType.WEEKS, 2024).finished(true);
+        importMetrics.start(ImportType.WEEKS, 2024).finished(false);
+
+        assertEquals(2, registry.get("import.duration").tags("type", "weeks", "outcome", "failure").timer().count());
+        assertEquals(1, registry.get("import.duration").tags("type", "weeks", "outcome", "success").timer().count());
+    }
+
+    @Test
+    void recordsNothingWithoutARegistry() {
+        assertSame(ImportMetrics.Recorder.NONE, new ImportMetrics(null).start(ImportType.WEEKS, 2024));
+    }
+}
@@ -1,13 +1,32 @@
 package com.sdg.golf.service;
 
+import com.sdg.golf.service.LeagueGenerator.LeagueSpec;
+import com.sdg.golf.service.LeagueGenerator.Season;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.text.SimpleDateFormat;
 import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
 
 import static org.junit.jupiter.api.Assertions.*;
 
 class ImportRoundServiceTest {
+    @TempDir
+    Path tempDir;
 
     @Test
     void getDateFromSheetName() throws Exception {
@@ -16,4 +35,92 @@ class ImportRoundServiceTest {
         assertNotNull(d);
         assertEquals("2024-08-01", new SimpleDateFormat("yyyy-MM-dd").format(d));
     }
-}
\ No newline at end of file
+
+    @Test
+    void incrementalImportOnlyParsesChangedSheets() throws Exception {
+        LeagueSpec spec = new LeagueSpec(12, 6, 3, 0, 1);
+        Season season = new LeagueGenerator(spec, tempDir).generate().getFirst();
+        Path scoreCard = season.scoreCardWorkbook();
+        // saved the way the edit below saves it, so that only the edited sheet differs afterwards
+        editScoreCard(scoreCard, workbook -> {});
+        ImportRoundService importRoundService = new ImportRoundService();
+        importRoundService.setFileRoot(tempDir.toString());
+        Path roundFile = tempDir.resolve("round-%s.txt".formatted(season.year()));
+        importRoundService.importRounds(scoreCard.toString(), season.seasonId(), season.year());
+        List<String> fullImport = Files.readAllLines(roundFile);
+
+        assertEquals(spec.weeks(), importIncrementally(importRoundService, season));
+        assertEquals(fullImport, Files.readAllLines(roundFile));
+        assertEquals(0, importIncrementally(importRoundService, season));
+        assertEquals(fullImport, Files.readAllLines(roundFile));
+
+        editScoreCard(scoreCard, workbook -> workbook.getSheetAt(3).getRow(0).getCell(1).setCellValue(40));
+        assertEquals(1, importIncrementally(importRoundService, season));
+        List<String> rounds = Files.readAllLines(roundFile);
+        assertEquals(fullImport.size(), rounds.size());
+        assertEquals(1, rounds.stream().filter(round -> round.endsWith(",40.0")).count());
+
+        importRoundService.setPlayerAliases("baby=Brien,bud=Buddy");
+        assertEquals(spec.weeks(), importIncrementally(importRoundService, season));
+        assertEquals(rounds, Files.readAllLines(roundFile));
+    }
+
+    @Test
+    void sheetsWaitingForTheirContextHoldNoParseThread() throws Exception {
+        LeagueSpec spec = new LeagueSpec(12, 6, 3, 0, 1);
+        Season season = new LeagueGenerator(spec, tempDir).generate().getFirst();
+        ImportRoundService importRoundService = new ImportRoundService();
+        importRoundService.setFileRoot(tempDir.toString());
+        SheetParseExecutor sheetParseExecutor = new SheetParseExecutor(1, 100);
+        importRoundService.setSheetParseExecutor(sheetParseExecutor);
+        CompletableFuture<ImportRoundService.RoundContext> context = new CompletableFuture<>();
+        CountDownLatch sheetsParsed = new CountDownLatch(spec.weeks());
+        ImportMetrics.Recorder recorder = new ImportMetrics.Recorder() {
+            @Override
+            public void sheetParsed(long nanos, int rows) {
+                sheetsParsed.countDown();
+            }
+        };
+        try (ExecutorService importer = Executors.newSingleThreadExecutor()) {
+            Future<ImportRoundService.SeasonRoundResult> rounds = importer.submit(() -> importRoundService.getRounds(
+                    WorkbookSource.of(season.scoreCardWorkbook()), context, ImportProgress.NONE, recorder));
+            assertTrue(sheetsParsed.await(5, TimeUnit.SECONDS));
+
+            // another import's sheet still gets the one thread while this import's context is being worked out
+            assertEquals("parsed", CompletableFuture.supplyAsync(() -> "parsed", sheetParseExecutor).get(5, TimeUnit.SECONDS));
+            assertFalse(rounds.isDone());
+            context.complete(importRoundService.getRoundContext(season.year(), season.seasonId()));
+
+            ImportRoundService.SeasonRoundResult result = rounds.get(5, TimeUnit.SECONDS);
+            assertEquals(List.of(), result.getErrors());
+            assertEquals(spec.roundsPerSeason(), result.getRounds().size());
+        } finally {
+            sheetParseExecutor.shutdown();
+        }
+    }
+
+    /**
+     * @return the number of sheets parsed
+     */
+    private int importIncrementally(ImportRoundService importRoundService, Season season) throws Exception {
+        AtomicInteger sheetsParsed = new AtomicInteger();
+        ImportRoundService.SeasonRoundResult result = importRoundService.importRounds(season.scoreCardWorkbook().toString(),
+                season.seasonId(), season.year(), true, new ImportProgress() {
+                    @Override
+                    public void rowsProcessed(int rows) {
+                        sheetsParsed.incrementAndGet();
+                    }
+                });
+        assertEquals(List.of(), result.getErrors());
+        return sheetsParsed.get();
+    }
+
+    private void editScoreCard(Path scoreCard, Consumer<XSSFWorkbook> edit) throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (InputStream is = Files.newInputStream(scoreCard); XSSFWorkbook workbook = new XSSFWorkbook(is)) {
+            edit.accept(workbook);
+            workbook.write(bytes);
+        }
+        Files.write(scoreCard, bytes.toByteArray());
+    }
+}
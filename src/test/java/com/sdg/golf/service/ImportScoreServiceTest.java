@@ -0,0 +1,128 @@
+package com.sdg.golf.service;
+
+import com.sdg.golf.service.ImportScoreService.ScoreResult;
+import com.sdg.golf.service.LeagueGenerator.LeagueSpec;
+import com.sdg.golf.service.LeagueGenerator.Season;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ImportScoreServiceTest {
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void importsNineHolesForEveryRound() throws Exception {
+        LeagueSpec spec = new LeagueSpec(12, 4, 3, 2, 1);
+        Season season = new LeagueGenerator(spec, tempDir).generate().getFirst();
+        ImportRoundService importRoundService = new ImportRoundService();
+        HandicapService handicapService = new HandicapService(importRoundService);
+        ImportScoreService importScoreService = new ImportScoreService(importRoundService, handicapService);
+        for (ImportService importService : List.of(importRoundService, importScoreService, handicapService)) {
+            importService.setFileRoot(tempDir.toString());
+        }
+        importRoundService.importRounds(season.scoreCardWorkbook().toString(), season.seasonId(), season.year());
+        List<String> rounds = Files.readAllLines(tempDir.resolve("round-%s.txt".formatted(season.year())));
+
+        ScoreResult result = importScoreService.importScores(season.scoreCardWorkbook().toString(), season.seasonId(), season.year());
+
+        assertEquals(new ScoreResult(spec.roundsPerSeason(), spec.roundsPerSeason(), spec.roundsPerSeason() * 9, List.of()), result);
+        List<String> scores = Files.readAllLines(tempDir.resolve("score-%s-%s.txt".formatted(season.year(), season.seasonId())));
+        assertEquals("player_id,match_id,hole,strokes", scores.getFirst());
+        assertEquals(spec.roundsPerSeason() * 9, scores.size() - 1);
+        for (int i = 1; i < scores.size(); i++) {
+            String[] score = scores.get(i).split(",");
+            String[] round = rounds.get((i - 1) / 9 + 1).split(",");
+            assertEquals(round[0] + "," + round[1], score[0] + "," + score[1]);
+            assertEquals(10 + (i - 1) % 9, Integer.parseInt(score[2]));
+            int strokes = Integer.parseInt(score[3]);
+            assertTrue(strokes >= 3 && strokes <= 6, scores.get(i));
+        }
+
+        Path handicapFile = tempDir.resolve("handicap-%s-%s.txt".formatted(season.year(), season.seasonId()));
+        List<String> handicaps = Files.readAllLines(handicapFile);
+        assertEquals("week_id,player_id,rounds,handicap", handicaps.getFirst());
+        assertEquals(spec.weeks(), handicaps.stream().skip(1).map(handicap -> handicap.split(",")[0]).distinct().count());
+        assertEquals(new HandicapService.HandicapResult(1, spec.roundsPerSeason(), spec.weeks(), (int) handicaps.stream().skip(1)
+                        .map(handicap -> handicap.split(",")[1]).distinct().count()),
+                handicapService.replay(List.of(season.year())));
+        assertEquals(handicaps, Files.readAllLines(handicapFile));
+    }
+
+    @Test
+    void carriesHandicapsOnFromEarlierScoreFilesAfterARestart() throws Exception {
+        List<Season> seasons = new LeagueGenerator(new LeagueSpec(12, 4, 3, 2, 2), tempDir).generate();
+        ImportRoundService importRoundService = new ImportRoundService();
+        importRoundService.setFileRoot(tempDir.toString());
+        ImportScoreService importScoreService = newImportScoreService();
+        for (Season season : seasons) {
+            importRoundService.importRounds(season.scoreCardWorkbook().toString(), season.seasonId(), season.year());
+            importScoreService.importScores(season.scoreCardWorkbook().toString(), season.seasonId(), season.year());
+        }
+        Season last = seasons.getLast();
+        Path handicapFile = tempDir.resolve("handicap-%s-%s.txt".formatted(last.year(), last.seasonId()));
+        List<String> carriedOn = Files.readAllLines(handicapFile);
+
+        ImportScoreService restarted = newImportScoreService();
+        restarted.importScores(last.scoreCardWorkbook().toString(), last.seasonId(), last.year());
+
+        assertEquals(carriedOn, Files.readAllLines(handicapFile));
+        assertTrue(carriedOn.stream().skip(1).anyMatch(handicap -> Integer.parseInt(handicap.split(",")[2]) > 4),
+                "the last season's handicaps count the rounds of the season before");
+    }
+
+    @Test
+    void twoSeasonsOfAYearKeepTheirOwnFilesAndCarryOnAfterARestart() throws Exception {
+        Season season = new LeagueGenerator(new LeagueSpec(12, 4, 3, 2, 1), tempDir).generate().getFirst();
+        String scoreCard = season.scoreCardWorkbook().toString();
+        // the same cards scored as a second season of the year, against the year's matches
+        ImportScoreService importScoreService = newImportScoreService();
+        importScoreService.importScores(scoreCard, 1, season.year());
+        importScoreService.importScores(scoreCard, 2, season.year());
+        Path firstHandicaps = tempDir.resolve("handicap-%s-1.txt".formatted(season.year()));
+        Path secondHandicaps = tempDir.resolve("handicap-%s-2.txt".formatted(season.year()));
+        List<String> first = Files.readAllLines(firstHandicaps);
+        List<String> second = Files.readAllLines(secondHandicaps);
+        assertEquals(Files.readAllLines(tempDir.resolve("score-%s-1.txt".formatted(season.year()))),
+                Files.readAllLines(tempDir.resolve("score-%s-2.txt".formatted(season.year()))));
+        assertNotEquals(first, second);
+        assertTrue(second.stream().skip(1).anyMatch(handicap -> Integer.parseInt(handicap.split(",")[2]) > 4),
+                "the second season's handicaps count the rounds of the first");
+
+        newImportScoreService().importScores(scoreCard, 2, season.year());
+
+        assertEquals(first, Files.readAllLines(firstHandicaps));
+        assertEquals(second, Files.readAllLines(secondHandicaps));
+    }
+
+    @Test
+    void writesNoScoresWhenTheHandicapsCannotBeWorkedOut() throws Exception {
+        Season season = new LeagueGenerator(new LeagueSpec(12, 4, 3, 2, 1), tempDir).generate().getFirst();
+        // an earlier season's score file cut off partway through a round
+        Files.writeString(tempDir.resolve("score-%s-1.txt".formatted(season.year() - 1)), "player_id,match_id,hole,strokes\n1,1,1,4\n");
+
+        IOException e = assertThrows(IOException.class, () -> newImportScoreService()
+                .importScores(season.scoreCardWorkbook().toString(), season.seasonId(), season.year()));
+
+        assertTrue(e.getMessage().startsWith("Handicaps of %s-%s carry on from %s-1".formatted(season.year(), season.seasonId(), season.year() - 1)),
+                e.getMessage());
+        assertFalse(Files.exists(tempDir.resolve("score-%s-%s.txt".formatted(season.year(), season.seasonId()))));
+        assertFalse(Files.exists(tempDir.resolve("handicap-%s-%s.txt".formatted(season.year(), season.seasonId()))));
+    }
+
+    private ImportScoreService newImportScoreService() {
+        ImportRoundService importRoundService = new ImportRoundService();
+        HandicapService handicapService = new HandicapService(importRoundService);
+        ImportScoreService importScoreService = new ImportScoreService(importRoundService, handicapService);
+        for (ImportService importService : List.of(importRoundService, importScoreService, handicapService)) {
+            importService.setFileRoot(tempDir.toString());
+        }
+        return importScoreService;
+    }
+}
@@ -0,0 +1,119 @@
+package com.sdg.golf.service;
+
+import com.sdg.golf.service.ImportSeasonService.SeasonResult;
+import com.sdg.golf.service.LeagueGenerator.LeagueSpec;
+import com.sdg.golf.service.LeagueGenerator.Season;
+import org.apache.poi.ss.usermodel.DateUtil;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ImportSeasonServiceTest {
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void seasonImportMatchesTheStagedImportsWithoutExtractFiles() throws Exception {
+        LeagueSpec spec = new LeagueSpec(12, 16, 3, 2, 1);
+        Season season = new LeagueGenerator(spec, tempDir).generate().getFirst();
+        ImportWeekMatchService importWeekMatchService = new ImportWeekMatchService();
+        ImportRoundService importRoundService = new ImportRoundService();
+        ImportSeasonService importSeasonService = new ImportSeasonService(importWeekMatchService, importRoundService);
+        for (ImportService importService : List.of(importWeekMatchService, importRoundService, importSeasonService)) {
+            importService.setFileRoot(tempDir.toString());
+        }
+
+        importRoundService.importRounds(season.scoreCardWorkbook().toString(), season.seasonId(), season.year());
+        Path roundFile = tempDir.resolve("round-%s.txt".formatted(season.year()));
+        List<String> stagedRounds = Files.readAllLines(roundFile);
+        List<String> matchExtract = Files.readAllLines(tempDir.resolve("match-extract-%s.txt".formatted(season.year())));
+        List<String> weekExtract = Files.readAllLines(tempDir.resolve("week-extract-%s.txt".formatted(season.year())));
+        Files.delete(roundFile);
+        Files.delete(tempDir.resolve("match-extract-%s.txt".formatted(season.year())));
+        Files.delete(tempDir.resolve("week-extract-%s.txt".formatted(season.year())));
+
+        SeasonResult result = importSeasonService.importSeason(season.matchupWorkbook().toString(), season.scoreCardWorkbook().toString(),
+                season.seasonId(), season.year(), 1, 1);
+
+        assertEquals(List.of(), result.errors());
+        assertEquals(new SeasonResult(spec.weeks(), spec.weeks() * spec.matchesPerWeek(), spec.roundsPerSeason(), List.of()), result);
+        assertEquals(stagedRounds, Files.readAllLines(roundFile));
+        List<String> matches = Files.readAllLines(tempDir.resolve("match-%s.txt".formatted(season.year())));
+        assertEquals("id,week_id,team_1,team_2", matches.getFirst());
+        assertEquals(matchExtract, matches.subList(1, matches.size()));
+        List<String> weeks = Files.readAllLines(tempDir.resolve("week-%s-%s.txt".formatted(season.year(), season.seasonId())));
+        assertEquals("id,name,date,season_id", weeks.getFirst());
+        assertEquals("1,Week 1,2024-04-17,1", weeks.get(1));
+        for (int i = 0; i < weekExtract.size(); i++) {
+            assertTrue(weeks.get(i + 1).startsWith(weekExtract.get(i).split(",")[0] + ",Week " + (i + 1) + "," + weekExtract.get(i).split(",")[1]));
+        }
+    }
+
+    @Test
+    void nothingIsWrittenWhenATeamIsNotOnTheTeamFile() throws Exception {
+        LeagueSpec spec = new LeagueSpec(12, 2, 3, 0, 1);
+        Season season = new LeagueGenerator(spec, tempDir).generate().getFirst();
+        Path teamFile = tempDir.resolve("team-%s.txt".formatted(season.year()));
+        List<String> teams = Files.readAllLines(teamFile);
+        Files.write(teamFile, teams.subList(0, teams.size() - 1));
+        ImportSeasonService importSeasonService = new ImportSeasonService(new ImportWeekMatchService(), new ImportRoundService());
+        importSeasonService.setFileRoot(tempDir.toString());
+
+        SeasonResult result = importSeasonService.importSeason(season.matchupWorkbook().toString(), season.scoreCardWorkbook().toString(),
+                season.seasonId(), season.year(), 1, 1);
+
+        assertFalse(result.errors().isEmpty());
+        assertFalse(Files.exists(tempDir.resolve("round-%s.txt".formatted(season.year()))));
+        assertFalse(Files.exists(tempDir.resolve("match-%s.txt".formatted(season.year()))));
+    }
+
+    @Test
+    void matchesAreNumberedInSheetOrderAcrossNoon() throws Exception {
+        Season season = new LeagueGenerator(new LeagueSpec(6, 1, 3, 0, 1), tempDir).generate().getFirst();
+        List<String> teams = Files.readAllLines(tempDir.resolve("team-%s.txt".formatted(season.year())));
+        List<String> matchExtract = Files.readAllLines(tempDir.resolve("match-extract-%s.txt".formatted(season.year())));
+        LocalDate weekDate = LocalDate.parse(Files.readAllLines(tempDir.resolve("week-extract-%s.txt".formatted(season.year()))).getFirst().split(",")[1]);
+        // 11:52, 12:00 and 1:00, written as hh:mm 11:52, 12:00 and 01:00
+        double[] teeTimes = {(11 * 60 + 52) / (24 * 60.0), 0.5, 13 / 24.0};
+        Path matchupWorkbook = tempDir.resolve("noon.xlsx");
+        try (SXSSFWorkbook xlsx = new SXSSFWorkbook();
+             OutputStream os = Files.newOutputStream(matchupWorkbook)) {
+            Sheet sheet = xlsx.createSheet(ImportService.WEEKLY_MATCHUPS_SHEET_NAME);
+            int rowNum = 1;
+            for (int m = 0; m < matchExtract.size(); m++) {
+                String[] match = matchExtract.get(m).split(",");
+                for (int t = 2; t <= 3; t++) {
+                    Row row = sheet.createRow(rowNum++);
+                    if (rowNum == 2) {
+                        row.createCell(0).setCellValue(DateUtil.getExcelDate(Date.from(weekDate.atStartOfDay(ZoneId.systemDefault()).toInstant())));
+                    }
+                    row.createCell(5).setCellValue(teams.get(Integer.parseInt(match[t])).split(",", 2)[1]);
+                    row.createCell(6).setCellValue(teeTimes[m]);
+                }
+            }
+            xlsx.write(os);
+            xlsx.dispose();
+        }
+        ImportSeasonService importSeasonService = new ImportSeasonService(new ImportWeekMatchService(), new ImportRoundService());
+        importSeasonService.setFileRoot(tempDir.toString());
+
+        SeasonResult result = importSeasonService.importSeason(matchupWorkbook.toString(), season.scoreCardWorkbook().toString(),
+                season.seasonId(), season.year(), 1, 1);
+
+        assertEquals(List.of(), result.errors());
+        List<String> matches = Files.readAllLines(tempDir.resolve("match-%s.txt".formatted(season.year())));
+        assertEquals(matchExtract, matches.subList(1, matches.size()));
+    }
+}
@@ -0,0 +1,67 @@
+package com.sdg.golf.service;
+
+import com.sdg.golf.service.ImportRoundService.SeasonRoundResult;
+import com.sdg.golf.service.LeagueGenerator.LeagueSpec;
+import com.sdg.golf.service.LeagueGenerator.Season;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the week, matchup and round imports over a generated league, 10x the 2024 league by default. The scale and
+ * limits can be raised from the command line, e.g. {@code ./gradlew test -Dleague.scale=1000}.
+ */
+class ImportThroughputTest {
+    private static final int SCALE = Integer.getInteger("league.scale", 10);
+    private static final int MIN_ROWS_PER_SECOND = Integer.getInteger("league.min-rows-per-second", 5_000);
+    private static final int MAX_HEAP_MB = Integer.getInteger("league.max-heap-mb", 256);
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void importsGeneratedLeagueWithinThroughputAndHeapLimits() throws Exception {
+        LeagueSpec spec = LeagueSpec.scaledFrom2024(SCALE);
+        List<Season> seasons = new LeagueGenerator(spec, tempDir).generate();
+        ImportWeekMatchService importWeekMatchService = new ImportWeekMatchService();
+        ImportRoundService importRoundService = new ImportRoundService();
+        importWeekMatchService.setFileRoot(tempDir.toString());
+        importRoundService.setFileRoot(tempDir.toString());
+
+        System.gc();
+        List<MemoryPoolMXBean> heapPools = ManagementFactory.getMemoryPoolMXBeans().stream()
+                .filter(pool -> pool.getType() == MemoryType.HEAP)
+                .toList();
+        heapPools.forEach(MemoryPoolMXBean::resetPeakUsage);
+        long rows = 0;
+        long start = System.nanoTime();
+        for (Season season : seasons) {
+            importWeekMatchService.importWeeks(season.matchupWorkbook().toString(), season.seasonId(), season.year());
+            importWeekMatchService.importMatchups(season.matchupWorkbook().toString(), season.seasonId(), season.year());
+            SeasonRoundResult result = importRoundService.importRounds(season.scoreCardWorkbook().toString(), season.seasonId(), season.year());
+
+            assertEquals(List.of(), result.getErrors());
+            assertEquals(spec.roundsPerSeason(), result.getRounds().size());
+            assertEquals(spec.weeks() + 1, Files.readAllLines(tempDir.resolve("week-%s-%s.txt".formatted(season.year(), season.seasonId()))).size());
+            assertEquals(spec.weeks() * spec.matchesPerWeek() + 1, Files.readAllLines(tempDir.resolve("match-%s.txt".formatted(season.year()))).size());
+            assertEquals(spec.roundsPerSeason() + 1, Files.readAllLines(tempDir.resolve("round-%s.txt".formatted(season.year()))).size());
+            rows += season.workbookRows();
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        long peakHeap = heapPools.stream().mapToLong(pool -> pool.getPeakUsage().getUsed()).sum();
+
+        double rowsPerSecond = rows / seconds;
+        assertTrue(rowsPerSecond >= MIN_ROWS_PER_SECOND,
+                "%dx league: %d rows in %.2fs is %.0f rows/sec".formatted(SCALE, rows, seconds, rowsPerSecond));
+        assertTrue(peakHeap <= MAX_HEAP_MB * 1024L * 1024,
+                "%dx league: peak heap %d MB".formatted(SCALE, peakHeap / (1024 * 1024)));
+    }
+}
@@ -0,0 +1,92 @@
+package com.sdg.golf.service;
+
+import com.sdg.golf.service.LeagueGenerator.LeagueSpec;
+import com.sdg.golf.service.LeagueGenerator.Season;
+import org.apache.poi.ss.usermodel.DateUtil;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ImportWeekMatchServiceTest {
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void matchupImportGroupsAnyNumberOfTeeTimesIntoWeeks() throws Exception {
+        LeagueSpec spec = new LeagueSpec(20, 3, 3, 0, 1);
+        Season season = new LeagueGenerator(spec, tempDir).generate().getFirst();
+        ImportWeekMatchService importWeekMatchService = new ImportWeekMatchService();
+        importWeekMatchService.setFileRoot(tempDir.toString());
+
+        importWeekMatchService.importMatchups(season.matchupWorkbook().toString(), season.seasonId(), season.year());
+
+        List<String> matches = Files.readAllLines(tempDir.resolve("match-%s.txt".formatted(season.year())));
+        assertEquals("week_id,team_1,team_2", matches.getFirst());
+        List<String> matchExtract = Files.readAllLines(tempDir.resolve("match-extract-%s.txt".formatted(season.year())));
+        assertEquals(spec.weeks() * spec.matchesPerWeek(), matchExtract.size());
+        assertEquals(matchExtract.stream().map(match -> match.substring(match.indexOf(',') + 1)).toList(),
+                matches.subList(1, matches.size()));
+    }
+
+    @Test
+    void aTeeTimePairSplitAcrossTheBlocksOfAWeekMakesOneMatch() throws Exception {
+        Season season = new LeagueGenerator(new LeagueSpec(4, 2, 3, 0, 1), tempDir).generate().getFirst();
+        List<String> teams = Files.readAllLines(tempDir.resolve("team-%s.txt".formatted(season.year())));
+        List<String> weekExtract = Files.readAllLines(tempDir.resolve("week-extract-%s.txt".formatted(season.year())));
+        Date week1 = toDate(weekExtract.get(0).split(",")[1]);
+        Date week2 = toDate(weekExtract.get(1).split(",")[1]);
+        double teeTime1 = 0.18333333333333335;
+        double teeTime2 = teeTime1 + 8 / (24 * 60.0);
+        Path workbook = tempDir.resolve("split.xlsx");
+        try (SXSSFWorkbook xlsx = new SXSSFWorkbook();
+             OutputStream os = Files.newOutputStream(workbook)) {
+            Sheet sheet = xlsx.createSheet(ImportService.WEEKLY_MATCHUPS_SHEET_NAME);
+            Object[][] rows = {
+                    {week1, 1, teeTime1}, {null, 2, teeTime1}, {null, 3, teeTime2},
+                    {week2, 1, teeTime1}, {null, 3, teeTime1}, {null, 2, teeTime2}, {null, 4, teeTime2},
+                    {week1, 4, teeTime2}};
+            for (int r = 0; r < rows.length; r++) {
+                Row row = sheet.createRow(r + 1);
+                if (rows[r][0] != null) {
+                    row.createCell(0).setCellValue(DateUtil.getExcelDate((Date) rows[r][0]));
+                }
+                row.createCell(5).setCellValue(teams.get((int) rows[r][1]).split(",")[1]);
+                row.createCell(6).setCellValue((double) rows[r][2]);
+            }
+            xlsx.write(os);
+            xlsx.dispose();
+        }
+        ImportWeekMatchService importWeekMatchService = new ImportWeekMatchService();
+        importWeekMatchService.setFileRoot(tempDir.toString());
+
+        importWeekMatchService.importMatchups(workbook.toString(), season.seasonId(), season.year());
+
+        List<String> matches = Files.readAllLines(tempDir.resolve("match-%s.txt".formatted(season.year())));
+        assertEquals(List.of("1,1,2", "1,3,4", "2,1,3", "2,2,4"), matches.subList(1, matches.size()).stream().sorted().toList());
+        Map<String, ImportService.TwoTeam> week1TeeTimes = importWeekMatchService
+                .readWeeklyMatchups(WorkbookSource.of(workbook), WorkbookReader.ReadListener.NONE).matchupsByDate().get(week1);
+        assertEquals(List.of("1:2", "3:4"), week1TeeTimes.values().stream()
+                .map(twoTeam -> teamId(teams, twoTeam.getTeam1()) + ":" + teamId(teams, twoTeam.getTeam2())).toList());
+    }
+
+    private static String teamId(List<String> teams, String teamName) {
+        return teams.stream().filter(team -> team.endsWith("," + teamName)).findFirst().orElseThrow().split(",")[0];
+    }
+
+    private static Date toDate(String date) {
+        return Date.from(LocalDate.parse(date).atStartOfDay(ZoneId.systemDefault()).toInstant());
+    }
+}
@@ -0,0 +1,293 @@
+package com.sdg.golf.service;
+
+import org.apache.poi.ss.usermodel.DateUtil;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Writes league workbooks laid out like the 2024 ones, together with the team and extract files the imports read:
+ * a "Weekly Matchups" sheet with a date row per week and a team name and tee time per row in columns F and G, and
+ * a score card workbook with a sheet per week holding two cards of two players for every match. Subs come from
+ * their own team and carry the team they play for in column F, as the manual corrections to the 2024 cards do.
+ * Ids continue across seasons the way the database assigns them.
+ */
+class LeagueGenerator {
+    static final LocalDate FIRST_WEEK = LocalDate.of(2024, 4, 17);
+    static final int FIRST_YEAR = 2024;
+    private static final String[] FIRST_NAMES = {"Simon", "Andy", "Randy", "Kurt", "Brice", "Carter", "Matt", "Cully",
+            "John", "Peter", "Michael", "Greg", "Chris", "Dale", "Doug", "Griffin", "Hunter", "Jake", "Jason", "Tom"};
+    private static final String[] LAST_NAMES = {"Anderson", "Bruecken", "Coffield", "Dahl", "Ellenberger", "Fair",
+            "Grimm", "Hutson", "Iverson", "Jersek", "Kelly", "Leising", "Midtbo", "Nelson", "Orstad", "Paskewitz",
+            "Quist", "Redpath", "Skube", "Thompson", "Urban", "Vang", "Wiedel", "Xiong", "Young", "Zimmer"};
+    private static final double FIRST_TEE_TIME = 0.18333333333333335;
+    private static final double TEE_TIME_INTERVAL = 8 / (24 * 60.0);
+    private static final DateTimeFormatter SHEET_NAME = DateTimeFormatter.ofPattern("yy-M-d");
+
+    /**
+     * @param subsPerWeek how many matches each week have a sub in place of a team's player
+     */
+    record LeagueSpec(int teams, int weeks, int playersPerTeam, int subsPerWeek, int seasons) {
+        /**
+         * The 2024 league, 12 teams of 3 over 16 weeks, grown by adding weeks and, from 100x, seasons.
+         */
+        static LeagueSpec scaledFrom2024(int factor) {
+            int seasons = factor >= 100 ? 10 : 1;
+            return new LeagueSpec(12, 16 * factor / seasons, 3, 2, seasons);
+        }
+
+        int matchesPerWeek() {
+            return teams / 2;
+        }
+
+        int roundsPerSeason() {
+            return weeks * matchesPerWeek() * 4;
+        }
+    }
+
+    record Season(int year, int seasonId, Path matchupWorkbook, Path scoreCardWorkbook, int workbookRows) {}
+
+    private final LeagueSpec spec;
+    private final Path fileRoot;
+    private final List<Player> players = new ArrayList<>();
+    private final List<Player> subs = new ArrayList<>();
+
+    LeagueGenerator(LeagueSpec spec, Path fileRoot) {
+        if (spec.teams() < 2 || spec.teams() % 2 != 0 || spec.playersPerTeam() < 2 || spec.subsPerWeek() > spec.teams() / 2) {
+            throw new IllegalArgumentException("Unsupported league " + spec);
+        }
+        this.spec = spec;
+        this.fileRoot = fileRoot;
+        for (int team = 1; team <= spec.teams(); team++) {
+            for (int i = 0; i < spec.playersPerTeam(); i++) {
+                players.add(newPlayer(team));
+            }
+        }
+        for (int i = 0; i < spec.subsPerWeek() * 2; i++) {
+            subs.add(newPlayer(spec.teams() + 1));
+        }
+    }
+
+    List<Season> generate() throws IOException {
+        Files.createDirectories(fileRoot);
+        List<Season> seasons = new ArrayList<>();
+        for (int s = 0; s < spec.seasons(); s++) {
+            seasons.add(generateSeason(s));
+        }
+        return seasons;
+    }
+
+    private Season generateSeason(int season) throws IOException {
+        int year = FIRST_YEAR + season;
+        int firstWeekId = season * spec.weeks() + 1;
+        int firstMatchId = season * spec.weeks() * spec.matchesPerWeek() + 1;
+        writeTeams(year);
+        writePlayerExtract(year);
+        try (Writer weekExtract = Files.newBufferedWriter(fileRoot.resolve("week-extract-%s.txt".formatted(year)));
+             Writer matchExtract = Files.newBufferedWriter(fileRoot.resolve("match-extract-%s.txt".formatted(year)))) {
+            int matchId = firstMatchId;
+            for (int week = 0; week < spec.weeks(); week++) {
+                weekExtract.write("%d,%s%n".formatted(firstWeekId + week, weekDate(week)));
+                for (int[] pairing : pairings(week)) {
+                    matchExtract.write("%d,%d,%d,%d%n".formatted(matchId++, firstWeekId + week, pairing[0], pairing[1]));
+                }
+            }
+        }
+        Path matchupWorkbook = fileRoot.resolve("League %s.xlsx".formatted(year));
+        Path scoreCardWorkbook = fileRoot.resolve("League Score Card %s.xlsx".formatted(year));
+        int rows = writeMatchupWorkbook(matchupWorkbook) + writeScoreCardWorkbook(scoreCardWorkbook);
+        return new Season(year, season + 1, matchupWorkbook, scoreCardWorkbook, rows);
+    }
+
+    private void writeTeams(int year) throws IOException {
+        List<String> lines = new ArrayList<>();
+        lines.add("id,name");
+        for (int team = 1; team <= spec.teams(); team++) {
+            lines.add(team + "," + teamName(team));
+        }
+        Files.write(fileRoot.resolve("team-%s.txt".formatted(year)), lines);
+    }
+
+    private void writePlayerExtract(int year) throws IOException {
+        List<String> lines = new ArrayList<>();
+        for (Player player : players) {
+            lines.add(player.extractLine());
+        }
+        for (Player sub : subs) {
+            lines.add(sub.extractLine());
+        }
+        Files.write(fileRoot.resolve("player-extract-%s.txt".formatted(year)), lines);
+    }
+
+    private int writeMatchupWorkbook(Path path) throws IOException {
+        int rowNum = 0;
+        try (SXSSFWorkbook workbook = new SXSSFWorkbook(null, 100, true, true);
+             OutputStream os = Files.newOutputStream(path)) {
+            workbook.createSheet("Team Standings").createRow(0).createCell(0).setCellValue("Team");
+            Sheet sheet = workbook.createSheet(ImportService.WEEKLY_MATCHUPS_SHEET_NAME);
+            for (int week = 0; week < spec.weeks(); week++) {
+                rowNum++;
+                List<int[]> pairings = pairings(week);
+                for (int i = 0; i < spec.teams(); i++) {
+                    int[] pairing = pairings.get(i / 2);
+                    double teeTime = FIRST_TEE_TIME + (i / 2) * TEE_TIME_INTERVAL;
+                    Row row = sheet.createRow(rowNum++);
+                    if (i == 0) {
+                        row.createCell(0).setCellValue(DateUtil.getExcelDate(toDate(weekDate(week))));
+                    } else {
+                        row.createCell(0).setCellValue(teeTime);
+                        row.createCell(1).setCellValue(lastName(pairing[0]) + " (" + i + ")");
+                        row.createCell(2).setCellValue(lastName(pairing[1]) + " (" + i + ")");
+                    }
+                    row.createCell(5).setCellValue(teamName(pairing[i % 2]));
+                    row.createCell(6).setCellValue(teeTime);
+                }
+            }
+            workbook.write(os);
+            workbook.dispose();
+        }
+        return rowNum;
+    }
+
+    private int writeScoreCardWorkbook(Path path) throws IOException {
+        int rows = 0;
+        try (SXSSFWorkbook workbook = new SXSSFWorkbook(null, 100, true, true);
+             OutputStream os = Files.newOutputStream(path)) {
+            workbook.createSheet("Scorecard").createRow(1).createCell(1).setCellValue("Handicap");
+            for (int week = spec.weeks() - 1; week >= 0; week--) {
+                Sheet sheet = workbook.createSheet(weekDate(week).format(SHEET_NAME));
+                int rowNum = 0;
+                List<int[]> pairings = pairings(week);
+                for (int m = 0; m < pairings.size(); m++) {
+                    int[] pairing = pairings.get(m);
+                    Player[] team1 = lineup(pairing[0], week, m < spec.subsPerWeek() ? m : -1);
+                    Player[] team2 = lineup(pairing[1], week, -1);
+                    rowNum = writeCard(sheet, rowNum, team1[0], team2[0], pairing[0]);
+                    rowNum = writeCard(sheet, rowNum, team1[1], team2[1], pairing[0]);
+                }
+                rows += rowNum;
+            }
+            workbook.createSheet("Best Ball").createRow(0).createCell(0).setCellValue("Best Ball");
+            workbook.write(os);
+            workbook.dispose();
+        }
+        return rows;
+    }
+
+    /**
+     * The team's two players for the week, rotating who sits out, with the second replaced by a sub when asked.
+     */
+    private Player[] lineup(int team, int week, int subIndex) {
+        int first = (team - 1) * spec.playersPerTeam();
+        Player[] lineup = {players.get(first + week % spec.playersPerTeam()), players.get(first + (week + 1) % spec.playersPerTeam())};
+        if (subIndex >= 0) {
+            lineup[1] = subs.get((week + subIndex) % subs.size());
+        }
+        return lineup;
+    }
+
+    private int writeCard(Sheet sheet, int rowNum, Player player1, Player player2, int subTeam) {
+        Player[] pair = {player1, player2};
+        for (int i = 0; i < 2; i++) {
+            Row row = sheet.createRow(rowNum++);
+            row.createCell(0).setCellValue(pair[i].cardName);
+            row.createCell(1).setCellValue(pair[i].handicap);
+            row.createCell(3).setCellValue(i == 0 ? "m1" : "(higher handicap)");
+            if (pair[i].team > spec.teams()) {
+                row.createCell(5).setCellValue(subTeam);
+            }
+            row.createCell(6).setCellValue("Player " + (i + 1));
+        }
+        rowNum++;
+        for (String label : new String[]{"Men's", "Strokes", "Hole"}) {
+            Row row = sheet.createRow(rowNum++);
+            row.createCell(0).setCellValue(label);
+            for (int hole = 0; hole < 9; hole++) {
+                row.createCell(2 + hole).setCellValue("Hole".equals(label) ? hole + 10 : (hole * 7) % 18 + 1);
+            }
+        }
+        for (int section = 0; section < 3; section++) {
+            for (Player player : pair) {
+                Row row = sheet.createRow(rowNum++);
+                row.createCell(0).setCellValue(player.cardName);
+                int total = 0;
+                for (int hole = 0; hole < 9; hole++) {
+                    int value = section == 0 ? 3 + (player.id + hole + rowNum) % 4 : (player.id + hole) % 2;
+                    row.createCell(2 + hole).setCellValue(value);
+                    total += value;
+                }
+                row.createCell(11).setCellValue(total);
+            }
+        }
+        return rowNum + 1;
+    }
+
+    /**
+     * Round robin pairings, the first team fixed and the others rotating a place each week.
+     */
+    private List<int[]> pairings(int week) {
+        int n = spec.teams();
+        List<int[]> pairings = new ArrayList<>();
+        for (int i = 0; i < n / 2; i++) {
+            int home = i == 0 ? 1 : rotate(i, week, n);
+            int away = rotate(n - 1 - i, week, n);
+            pairings.add(new int[]{home, away});
+        }
+        return pairings;
+    }
+
+    private static int rotate(int position, int week, int n) {
+        return (position - 1 + week) % (n - 1) + 2;
+    }
+
+    private LocalDate weekDate(int week) {
+        return FIRST_WEEK.plusWeeks(week);
+    }
+
+    private String teamName(int team) {
+        StringBuilder name = new StringBuilder();
+        int first = (team - 1) * spec.playersPerTeam();
+        for (int i = 0; i < spec.playersPerTeam(); i++) {
+            name.append(i == 0 ? "" : "/").append(players.get(first + i).lastName);
+        }
+        return name.toString();
+    }
+
+    private String lastName(int team) {
+        return players.get((team - 1) * spec.playersPerTeam()).lastName;
+    }
+
+    private Player newPlayer(int team) {
+        int id = players.size() + subs.size() + 1;
+        int i = id - 1;
+        String firstName = FIRST_NAMES[i % FIRST_NAMES.length];
+        int last = i / FIRST_NAMES.length;
+        // a first name and last initial is unique until every last name has been used with every first name
+        boolean initialIsUnique = last < LAST_NAMES.length;
+        String lastName = LAST_NAMES[last % LAST_NAMES.length] + (initialIsUnique ? "" : last / LAST_NAMES.length);
+        String cardName = firstName + " " + (initialIsUnique && id % 2 == 0 ? lastName.substring(0, 1) : lastName);
+        return new Player(id, firstName, lastName, cardName, (id * 7) % 25, team);
+    }
+
+    private static Date toDate(LocalDate date) {
+        return Date.from(date.atStartOfDay(ZoneId.systemDefault()).toInstant());
+    }
+
+    private record Player(int id, String firstName, String lastName, String cardName, int handicap, int team) {
+        String extractLine() {
+            return "%d,%s,%s,%s.%s@example.com,%d.0,,%d".formatted(id, firstName, lastName, firstName.toLowerCase(), lastName.toLowerCase(), handicap, team);
+        }
+    }
+}
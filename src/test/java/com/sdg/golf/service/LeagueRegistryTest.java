@@ -0,0 +1,130 @@
+package com.sdg.golf.service;
+
+import com.sdg.golf.service.LeagueGenerator.LeagueSpec;
+import com.sdg.golf.service.LeagueGenerator.Season;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LeagueRegistryTest {
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void eachLeagueImportsUnderItsOwnFileRoot() throws Exception {
+        LeagueRegistry leagueRegistry = newLeagueRegistry("north, south");
+        League north = leagueRegistry.find("north").orElseThrow();
+        League south = leagueRegistry.find("south").orElseThrow();
+        assertSame(north, leagueRegistry.find("north").orElseThrow());
+        assertEquals(tempDir.resolve("north"), north.getFileRoot());
+        assertEquals(tempDir, leagueRegistry.find(null).orElseThrow().getFileRoot());
+        assertEquals(Optional.empty(), leagueRegistry.find("west"));
+        assertNotSame(north.getReferenceDataCache(), south.getReferenceDataCache());
+
+        LeagueSpec northSpec = new LeagueSpec(12, 2, 3, 0, 1);
+        LeagueSpec southSpec = new LeagueSpec(8, 3, 3, 0, 1);
+        Season northSeason = new LeagueGenerator(northSpec, tempDir.resolve("north")).generate().getFirst();
+        Season southSeason = new LeagueGenerator(southSpec, tempDir.resolve("south")).generate().getFirst();
+        ImportRoundService.SeasonRoundResult northRounds = north.run(() -> north.getImportRoundService()
+                .importRounds(northSeason.scoreCardWorkbook().toString(), northSeason.seasonId(), northSeason.year()));
+        ImportRoundService.SeasonRoundResult southRounds = south.run(() -> south.getImportRoundService()
+                .importRounds(southSeason.scoreCardWorkbook().toString(), southSeason.seasonId(), southSeason.year()));
+
+        assertEquals(List.of(), northRounds.getErrors());
+        assertEquals(List.of(), southRounds.getErrors());
+        assertEquals(northSpec.roundsPerSeason() + 1, Files.readAllLines(tempDir.resolve("north/round-%s.txt".formatted(northSeason.year()))).size());
+        assertEquals(southSpec.roundsPerSeason() + 1, Files.readAllLines(tempDir.resolve("south/round-%s.txt".formatted(southSeason.year()))).size());
+        assertFalse(Files.exists(tempDir.resolve("round-%s.txt".formatted(northSeason.year()))));
+        leagueRegistry.shutdown();
+    }
+
+    @Test
+    void leagueIdsMustBeSafeDirectoryNames() {
+        assertThrows(IllegalArgumentException.class, () -> newLeagueRegistry("north,../south"));
+        assertThrows(IllegalArgumentException.class, () -> newLeagueRegistry("default"));
+    }
+
+    @Test
+    void aLeagueWithAFullQueueIsRefusedWhileOtherLeaguesRun() throws Exception {
+        LeagueRegistry leagueRegistry = newLeagueRegistry("north, south", 1, 1);
+        League north = leagueRegistry.find("north").orElseThrow();
+        League south = leagueRegistry.find("south").orElseThrow();
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        try (ExecutorService requests = Executors.newFixedThreadPool(2)) {
+            Future<String> first = requests.submit(() -> north.run(() -> {
+                running.countDown();
+                release.await();
+                return "first";
+            }));
+            assertTrue(running.await(5, TimeUnit.SECONDS));
+            Future<String> queued = requests.submit(() -> north.run(() -> "queued"));
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (north.getQueuedRequests() == 0 && System.nanoTime() < deadline) {
+                Thread.sleep(1);
+            }
+
+            assertThrows(RejectedExecutionException.class, () -> north.run(() -> "refused"));
+            assertEquals("south", south.run(() -> "south"));
+            release.countDown();
+            assertEquals("first", first.get(5, TimeUnit.SECONDS));
+            assertEquals("queued", queued.get(5, TimeUnit.SECONDS));
+        } finally {
+            release.countDown();
+            leagueRegistry.shutdown();
+        }
+    }
+
+    @Test
+    void queuedJobsDoNotHoldUpTheLeaguesOwnRequests() throws Exception {
+        LeagueRegistry leagueRegistry = newLeagueRegistry("", 1, 1);
+        League league = leagueRegistry.find(null).orElseThrow();
+        CountDownLatch release = new CountDownLatch(1);
+        Runnable job = () -> {
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+        try {
+            league.submit(job);
+            league.submit(job);
+            assertThrows(RejectedExecutionException.class, () -> league.submit(job));
+
+            assertEquals("weekly import", league.run(() -> "weekly import"));
+        } finally {
+            release.countDown();
+            leagueRegistry.shutdown();
+        }
+    }
+
+    private LeagueRegistry newLeagueRegistry(String leagueIds) {
+        return newLeagueRegistry(leagueIds, 2, 4);
+    }
+
+    private LeagueRegistry newLeagueRegistry(String leagueIds, int threads, int queueCapacity) {
+        ImportWeekMatchService importWeekMatchService = new ImportWeekMatchService();
+        ImportRoundService importRoundService = new ImportRoundService();
+        HandicapService handicapService = new HandicapService(importRoundService);
+        ImportScoreService importScoreService = new ImportScoreService(importRoundService, handicapService);
+        ImportSeasonService importSeasonService = new ImportSeasonService(importWeekMatchService, importRoundService);
+        for (ImportService importService : List.of(importWeekMatchService, importRoundService, handicapService, importScoreService, importSeasonService)) {
+            importService.setFileRoot(tempDir.toString());
+        }
+        return new LeagueRegistry(importWeekMatchService, importRoundService, importScoreService, importSeasonService,
+                handicapService, new ReferenceDataCache(32), leagueIds, 32, threads, queueCapacity, threads, queueCapacity);
+    }
+}
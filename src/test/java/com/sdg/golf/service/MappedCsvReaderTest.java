@@ -0,0 +1,89 @@
+package com.sdg.golf.service;
+
+import com.sdg.golf.service.ImportRoundService.Match;
+import com.sdg.golf.service.ImportService.PlayerExtract;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Compares the mapped reader with the line split parsing it replaced, on the files checked in under files/.
+ */
+class MappedCsvReaderTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void readsPlayerExtractLikeLineSplit() throws Exception {
+        Path path = Path.of("files/player-extract-2024.txt");
+        List<PlayerExtract> expected = Files.readAllLines(path).stream().map(line -> {
+            String[] lineTokens = line.split(",");
+            return new PlayerExtract(Integer.parseInt(lineTokens[0]), lineTokens[1], lineTokens[2], lineTokens[3],
+                    Double.parseDouble(lineTokens[4]), lineTokens[5], Integer.parseInt(lineTokens[6]));
+        }).toList();
+        assertEquals(expected, new ImportRoundService().readPlayerExtract(path));
+    }
+
+    @Test
+    void readsMatchExtractLikeLineSplit() throws Exception {
+        Path path = Path.of("files/match-extract-2024.txt");
+        List<Match> expected = Files.readAllLines(path).stream().map(line -> {
+            String[] lineTokens = line.split(",");
+            return new Match(Integer.parseInt(lineTokens[0]), Integer.parseInt(lineTokens[1]),
+                    Integer.parseInt(lineTokens[2]), Integer.parseInt(lineTokens[3]));
+        }).toList();
+        assertEquals(expected, new ImportRoundService().readMatchExtract(path));
+    }
+
+    @Test
+    void readsWeekExtractDatesLikeSimpleDateFormat() throws Exception {
+        Path path = Path.of("files/week-extract-2024.txt");
+        List<String> expected = new ArrayList<>();
+        for (String line : Files.readAllLines(path)) {
+            String[] weekExtractLine = line.split(",");
+            expected.add(Integer.valueOf(weekExtractLine[0]) + "=" + new SimpleDateFormat("yyyy-MM-dd").parse(weekExtractLine[1]).getTime());
+        }
+        List<String> actual = new ArrayList<>();
+        MappedCsvReader csv = MappedCsvReader.open(path);
+        while (csv.nextRecord()) {
+            int weekId = csv.nextInt();
+            Date weekDate = csv.nextDate();
+            actual.add(weekId + "=" + weekDate.getTime());
+        }
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    void skipsHeaderAndBlankLines() throws Exception {
+        Path path = Files.writeString(tempDir.resolve("team.txt"), "\uFEFFid,name\r\n1,Schwob/Midtbo/Skube\r\n\r\n2,Urban/Redpath/Hutson\r\n");
+        List<String> teams = new ArrayList<>();
+        MappedCsvReader csv = MappedCsvReader.open(path);
+        while (csv.nextRecord()) {
+            if (!csv.lineEquals("id,name")) {
+                teams.add(csv.nextInt() + ":" + csv.nextString());
+            }
+        }
+        assertEquals(List.of("1:Schwob/Midtbo/Skube", "2:Urban/Redpath/Hutson"), teams);
+    }
+
+    @Test
+    void reportsLineAndColumnOfMalformedField() throws Exception {
+        Path path = Files.writeString(tempDir.resolve("match.txt"), "1,1,6,2\n2,1,x2,1\n");
+        MappedCsvReader csv = MappedCsvReader.open(path);
+        assertTrue(csv.nextRecord());
+        assertTrue(csv.nextRecord());
+        csv.nextInt();
+        csv.nextInt();
+        MappedCsvReader.CsvParseException e = assertThrows(MappedCsvReader.CsvParseException.class, csv::nextInt);
+        assertTrue(e.getMessage().endsWith("line 2 column 5: expected an integer"), e.getMessage());
+    }
+}
@@ -0,0 +1,40 @@
+package com.sdg.golf.service;
+
+import com.sdg.golf.service.ImportRoundService.Match;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MatchIndexTest {
+
+    @Test
+    void findsMatchForEitherTeam() {
+        List<Match> matches = new ArrayList<>();
+        int matchId = 1;
+        for (int week = 1; week <= 16; week++) {
+            for (int team = 1; team <= 12; team += 2) {
+                matches.add(new Match(matchId++, week, team, team + 1));
+            }
+        }
+        MatchIndex matchIndex = new MatchIndex(matches, List.of(1, 16));
+        for (Match match : matches) {
+            assertEquals(match.id(), matchIndex.get(match.weekId(), match.team1Id()));
+            assertEquals(match.id(), matchIndex.get(match.weekId(), match.team2Id()));
+        }
+        assertEquals(MatchIndex.NO_MATCH, matchIndex.get(17, 1));
+        assertEquals(MatchIndex.NO_MATCH, matchIndex.get(1, 13));
+        assertTrue(matchIndex.getErrors().isEmpty());
+    }
+
+    @Test
+    void reportsDuplicateTeamsAndMissingWeeks() {
+        MatchIndex matchIndex = new MatchIndex(List.of(new Match(1, 1, 6, 2), new Match(2, 1, 12, 6)), List.of(1, 2));
+        assertEquals(List.of("Team 6 is in matches 1 and 2 in week 1"), matchIndex.getErrors());
+        assertEquals(1, matchIndex.get(1, 6));
+        assertNull(matchIndex.getMissingWeek(1));
+        assertNotNull(matchIndex.getMissingWeek(2));
+    }
+}
@@ -0,0 +1,45 @@
+package com.sdg.golf.service;
+
+import com.sdg.golf.service.ImportService.PlayerExtract;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PlayerNameIndexTest {
+    private final PlayerExtract simon = new PlayerExtract(1, "Simon", "Schwob", "", 12, "", 1);
+    private final PlayerExtract johnY = new PlayerExtract(19, "John", "Young", "", 18, "", 8);
+    private final PlayerExtract johnG = new PlayerExtract(23, "John", "Grimm", "", 9, "", 10);
+    private final PlayerExtract brien = new PlayerExtract(15, "Brien", "Coffield", "", 17, "", 6);
+    private final PlayerNameIndex index = new PlayerNameIndex(List.of(simon, johnY, johnG, brien), Map.of("baby", "Brien"));
+
+    @Test
+    void resolvesUniqueFirstNameWhateverFollows() {
+        assertEquals(simon, index.resolve("Simon"));
+        assertEquals(simon, index.resolve("simon S"));
+        assertEquals(simon, index.resolve("Simon Schwob"));
+    }
+
+    @Test
+    void resolvesSharedFirstNameByLastInitialOrLastName() {
+        assertEquals(johnG, index.resolve("John G"));
+        assertEquals(johnY, index.resolve("john  y"));
+        assertEquals(johnG, index.resolve("John Grimm"));
+        assertNull(index.resolve("John X"));
+    }
+
+    @Test
+    void sharedFirstNameAloneResolvesToFirstOnExtractAndIsReported() {
+        assertEquals(johnY, index.resolve("John"));
+        assertEquals(1, index.getAmbiguities().size());
+        assertTrue(index.getAmbiguities().getFirst().contains("John"));
+    }
+
+    @Test
+    void resolvesAliases() {
+        assertEquals(brien, index.resolve("Baby J"));
+        assertNull(index.resolve("Kurt"));
+    }
+}
@@ -0,0 +1,53 @@
+package com.sdg.golf.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReferenceDataCacheTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void reloadsOnlyWhenTheFileChanges() throws Exception {
+        Path file = Files.writeString(tempDir.resolve("team-2024.txt"), "id,name\n1,Schwob/Midtbo/Skube");
+        ReferenceDataCache cache = new ReferenceDataCache(4);
+        AtomicInteger loads = new AtomicInteger();
+        ReferenceDataCache.Loader<List<String>> loader = () -> {
+            loads.incrementAndGet();
+            return Files.readAllLines(file);
+        };
+
+        assertEquals(2, cache.get(2024, "team", loader, file).size());
+        assertEquals(2, cache.get(2024, "team", loader, file).size());
+        assertEquals(1, loads.get());
+
+        Files.writeString(file, "id,name\n1,Schwob/Midtbo/Skube\n2,Urban/Redpath/Hutson");
+        assertEquals(3, cache.get(2024, "team", loader, file).size());
+        assertEquals(2, loads.get());
+        assertEquals(new ReferenceDataCache.Stats(1, 2, 1), cache.getStats());
+    }
+
+    @Test
+    void evictsLeastRecentlyUsedYear() throws Exception {
+        Path file = Files.writeString(tempDir.resolve("week-extract.txt"), "1,2024-04-17");
+        ReferenceDataCache cache = new ReferenceDataCache(2);
+        AtomicInteger loads = new AtomicInteger();
+        ReferenceDataCache.Loader<Integer> loader = loads::incrementAndGet;
+
+        cache.get(2022, "week", loader, file);
+        cache.get(2023, "week", loader, file);
+        cache.get(2022, "week", loader, file);
+        cache.get(2024, "week", loader, file);
+        cache.get(2022, "week", loader, file);
+        cache.get(2023, "week", loader, file);
+        assertEquals(4, loads.get());
+    }
+}
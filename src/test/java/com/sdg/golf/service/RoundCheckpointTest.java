@@ -0,0 +1,56 @@
+package com.sdg.golf.service;
+
+import com.sdg.golf.service.ImportRoundService.Round;
+import com.sdg.golf.service.ImportRoundService.SeasonRoundResult;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RoundCheckpointTest {
+
+    private static final Date ROUND_DATE = Date.from(LocalDate.of(2024, 5, 7).atStartOfDay(ZoneId.systemDefault()).toInstant());
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void errorsWithLineBreaksAndBackslashesReadBackAsWritten() throws Exception {
+        Path path = tempDir.resolve("round-checkpoint-2024.txt");
+        SeasonRoundResult result = new SeasonRoundResult();
+        result.rounds.add(new Round(18, 43, 8, 10.0));
+        result.errors.add("Player not found: Smith,\nJohn");
+        result.errors.add("Sheet C:\\scores\\n 05-07\r\nhas no match");
+        RoundCheckpoint checkpoint = new RoundCheckpoint("ref");
+        checkpoint.put(ROUND_DATE, "sheet", result);
+        checkpoint.write(path);
+
+        SeasonRoundResult read = RoundCheckpoint.read(path, "ref").get(ROUND_DATE, "sheet");
+        assertNotNull(read);
+        assertEquals(List.of(new Round(18, 43, 8, 10.0)), read.rounds);
+        assertEquals(result.errors, read.errors);
+    }
+
+    @Test
+    void checkpointThatCannotBeReadBackIsTreatedAsAbsent() throws Exception {
+        Path path = tempDir.resolve("round-checkpoint-2024.txt");
+        Files.writeString(path, String.join(System.lineSeparator(),
+                "reference,ref", "sheet,2024-05-07,sheet", "error,Player not found", "John Smith"));
+        assertEquals(0, RoundCheckpoint.read(path, "ref").size());
+
+        Files.writeString(path, String.join(System.lineSeparator(),
+                "reference,ref", "round,18,43,8,10.0"));
+        assertEquals(0, RoundCheckpoint.read(path, "ref").size());
+
+        Files.writeString(path, String.join(System.lineSeparator(),
+                "reference,ref", "sheet,not-a-date,sheet"));
+        assertEquals(0, RoundCheckpoint.read(path, "ref").size());
+    }
+}
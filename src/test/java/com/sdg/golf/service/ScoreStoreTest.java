@@ -0,0 +1,36 @@
+package com.sdg.golf.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ScoreStoreTest {
+
+    @Test
+    void growsAndCopiesRoundsBetweenStores() {
+        ScoreStore cardScores = new ScoreStore(1);
+        for (int round = 0; round < 100; round++) {
+            byte[] strokes = new byte[ScoreStore.HOLES];
+            for (int hole = 0; hole < ScoreStore.HOLES; hole++) {
+                strokes[hole] = (byte) (3 + (round + hole) % 4);
+            }
+            assertEquals(round, cardScores.add(0, 0, round % 2 == 0 ? 1 : 10, strokes, 0));
+        }
+        ScoreStore resolved = new ScoreStore(0);
+        resolved.add(7, 3, cardScores, 42);
+        ScoreStore season = new ScoreStore(1);
+        season.addAll(cardScores);
+        season.addAll(resolved);
+
+        assertEquals(101, season.size());
+        assertEquals(7, season.getPlayerId(100));
+        assertEquals(3, season.getMatchId(100));
+        assertEquals(1, season.getFirstHole(100));
+        for (int hole = 0; hole < ScoreStore.HOLES; hole++) {
+            assertEquals(cardScores.getStrokes(42, hole), season.getStrokes(100, hole));
+            assertEquals(3 + (99 + hole) % 4, season.getStrokes(99, hole));
+        }
+        assertEquals(10, season.getFirstHole(99));
+        assertEquals(cardScores.getTotal(42), season.getTotal(100));
+    }
+}
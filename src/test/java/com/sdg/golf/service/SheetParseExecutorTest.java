@@ -0,0 +1,47 @@
+package com.sdg.golf.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SheetParseExecutorTest {
+
+    @Test
+    void sheetsPastTheQueueAreParsedByTheImportingThread() throws Exception {
+        SheetParseExecutor executor = new SheetParseExecutor(1, 1);
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            CompletableFuture<String> first = CompletableFuture.supplyAsync(() -> {
+                running.countDown();
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return Thread.currentThread().getName();
+            }, executor);
+            assertTrue(running.await(5, TimeUnit.SECONDS));
+            CompletableFuture<String> queued = CompletableFuture.supplyAsync(() -> Thread.currentThread().getName(), executor);
+            CompletableFuture<String> overflow = CompletableFuture.supplyAsync(() -> Thread.currentThread().getName(), executor);
+
+            assertEquals(Thread.currentThread().getName(), overflow.getNow(null));
+            release.countDown();
+            assertEquals("import-parse-1", first.get(5, TimeUnit.SECONDS));
+            assertEquals("import-parse-1", queued.get(5, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void defaultsToAThreadPerCore() {
+        SheetParseExecutor executor = new SheetParseExecutor();
+        assertEquals(Runtime.getRuntime().availableProcessors(), executor.getPoolSize());
+        executor.shutdown();
+    }
+}
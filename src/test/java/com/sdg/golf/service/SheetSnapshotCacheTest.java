@@ -0,0 +1,88 @@
+package com.sdg.golf.service;
+
+import org.apache.poi.ss.usermodel.CellType;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SheetSnapshotCacheTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void snapshotVisitsTheRowsTheReaderDoes() throws Exception {
+        Path path = WorkbookReaderTest.createWorkbook(tempDir.resolve("matchups.xlsx"), 3, 40);
+        StreamingWorkbookReader reader = new StreamingWorkbookReader();
+        List<String> read = new ArrayList<>();
+        reader.read(path, SheetVisitor.forSheet("24-4-2", row -> read.add(describe(row))));
+
+        List<String> replayed = new ArrayList<>();
+        SheetSnapshot.read(reader, WorkbookSource.of(path), "24-4-2", WorkbookReader.ReadListener.NONE)
+                .visitRows(row -> replayed.add(describe(row)));
+        assertEquals(40, replayed.size());
+        assertEquals(read, replayed);
+    }
+
+    @Test
+    void reparsesOnlyWhenTheWorkbookContentChanges() throws Exception {
+        Path path = WorkbookReaderTest.createWorkbook(tempDir.resolve("matchups.xlsx"), 2, 20);
+        SheetSnapshotCache cache = new SheetSnapshotCache(DataSize.ofMegabytes(1));
+        AtomicInteger loads = new AtomicInteger();
+        ReferenceDataCache.Loader<SheetSnapshot> loader = () -> {
+            loads.incrementAndGet();
+            return SheetSnapshot.read(new StreamingWorkbookReader(), WorkbookSource.of(path), "24-4-1", WorkbookReader.ReadListener.NONE);
+        };
+
+        assertEquals(20, cache.get(path, "24-4-1", loader).getRows());
+        assertEquals(20, cache.get(path, "24-4-1", loader).getRows());
+        Files.setLastModifiedTime(path, FileTime.fromMillis(Files.getLastModifiedTime(path).toMillis() + 60_000));
+        assertEquals(20, cache.get(path, "24-4-1", loader).getRows());
+        assertEquals(1, loads.get());
+
+        WorkbookReaderTest.createWorkbook(path, 2, 30);
+        assertEquals(30, cache.get(path, "24-4-1", loader).getRows());
+        assertEquals(2, loads.get());
+        SheetSnapshotCache.Stats stats = cache.getStats();
+        assertEquals(2, stats.hits());
+        assertEquals(2, stats.misses());
+        assertEquals(1, stats.entries());
+    }
+
+    @Test
+    void evictsLeastRecentlyUsedSnapshotsPastMaxSize() throws Exception {
+        Path path = WorkbookReaderTest.createWorkbook(tempDir.resolve("matchups.xlsx"), 3, 100);
+        StreamingWorkbookReader reader = new StreamingWorkbookReader();
+        long snapshotBytes = SheetSnapshot.read(reader, WorkbookSource.of(path), "24-4-1", WorkbookReader.ReadListener.NONE)
+                .getSizeInBytes();
+        SheetSnapshotCache cache = new SheetSnapshotCache(DataSize.ofBytes(snapshotBytes * 5 / 2));
+        AtomicInteger loads = new AtomicInteger();
+
+        for (String sheetName : List.of("24-4-1", "24-4-2", "24-4-1", "24-4-3", "24-4-1", "24-4-2")) {
+            cache.get(path, sheetName, () -> {
+                loads.incrementAndGet();
+                return SheetSnapshot.read(reader, WorkbookSource.of(path), sheetName, WorkbookReader.ReadListener.NONE);
+            });
+        }
+        assertEquals(4, loads.get());
+        assertTrue(cache.getStats().bytes() <= snapshotBytes * 5 / 2);
+    }
+
+    private static String describe(SheetRow row) {
+        StringBuilder sb = new StringBuilder().append(row.getRowNum());
+        for (int col = 0; col < 8; col++) {
+            CellType type = row.getCellType(col);
+            sb.append('|').append(type).append(':').append(row.getString(col)).append(':').append(row.getNumber(col));
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,87 @@
+package com.sdg.golf.service;
+
+import com.sdg.golf.service.LeagueGenerator.LeagueSpec;
+import com.sdg.golf.service.LeagueGenerator.Season;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Random;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UploadedWorkbookTest {
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void importsFromTheStreamAsFromTheFile() throws Exception {
+        Season season = new LeagueGenerator(new LeagueSpec(12, 4, 3, 0, 1), tempDir).generate().getFirst();
+        ImportWeekMatchService importWeekMatchService = new ImportWeekMatchService();
+        importWeekMatchService.setFileRoot(tempDir.toString());
+        Path weekFile = tempDir.resolve("week-%s-%s.txt".formatted(season.year(), season.seasonId()));
+        importWeekMatchService.importWeeks(season.matchupWorkbook().toString(), season.seasonId(), season.year());
+        List<String> fromFile = Files.readAllLines(weekFile);
+        Files.delete(weekFile);
+
+        byte[] bytes = Files.readAllBytes(season.matchupWorkbook());
+        try (UploadedWorkbook workbook = UploadedWorkbook.read("matchups.xlsx", new ByteArrayInputStream(bytes), bytes.length, 100L * bytes.length)) {
+            importWeekMatchService.importWeeks(workbook, season.seasonId(), season.year(), ImportProgress.NONE);
+            // the package is shared by every read of the upload
+            importWeekMatchService.importWeeks(workbook, season.seasonId(), season.year(), ImportProgress.NONE);
+        }
+        assertEquals(fromFile, Files.readAllLines(weekFile));
+    }
+
+    @Test
+    void rejectsBodiesThatAreNotXlsxOrTooLarge() throws Exception {
+        byte[] csv = "id,name\n1,Team 1\n".getBytes(StandardCharsets.UTF_8);
+        UploadRejectedException notXlsx = assertThrows(UploadRejectedException.class,
+                () -> UploadedWorkbook.read("teams.csv", new ByteArrayInputStream(csv), 1024, 1024 * 1024));
+        assertEquals(UploadRejectedException.Reason.NOT_XLSX, notXlsx.getReason());
+
+        Season season = new LeagueGenerator(new LeagueSpec(12, 2, 3, 0, 1), tempDir).generate().getFirst();
+        byte[] bytes = Files.readAllBytes(season.scoreCardWorkbook());
+        UploadRejectedException tooLarge = assertThrows(UploadRejectedException.class,
+                () -> UploadedWorkbook.read("score card.xlsx", new ByteArrayInputStream(bytes), bytes.length / 2, 100L * bytes.length));
+        assertEquals(UploadRejectedException.Reason.TOO_LARGE, tooLarge.getReason());
+    }
+
+    @Test
+    void rejectsSmallBodiesThatInflateTooFar() throws Exception {
+        byte[] blankSheet = zip(" ".repeat(8 * 1024 * 1024));
+        assertTrue(blankSheet.length < 64 * 1024, "compressed to " + blankSheet.length);
+        UploadRejectedException bomb = assertThrows(UploadRejectedException.class,
+                () -> UploadedWorkbook.read("blank.xlsx", new ByteArrayInputStream(blankSheet), 1024 * 1024, 100 * 1024 * 1024));
+        assertEquals(UploadRejectedException.Reason.TOO_LARGE, bomb.getReason());
+
+        StringBuilder rows = new StringBuilder();
+        Random random = new Random(17);
+        for (int r = 1; rows.length() < 4 * 1024 * 1024; r++) {
+            rows.append("<row r=\"%d\"><c r=\"B%d\"><v>%d</v></c></row>".formatted(r, r, random.nextInt(1_000_000)));
+        }
+        byte[] bigSheet = zip(rows.toString());
+        assertTrue(bigSheet.length < 2 * 1024 * 1024, "compressed to " + bigSheet.length);
+        UploadRejectedException inflated = assertThrows(UploadRejectedException.class,
+                () -> UploadedWorkbook.read("big.xlsx", new ByteArrayInputStream(bigSheet), 2 * 1024 * 1024, 1024 * 1024));
+        assertEquals(UploadRejectedException.Reason.TOO_LARGE, inflated.getReason());
+    }
+
+    private static byte[] zip(String sheetXml) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ZipOutputStream zip = new ZipOutputStream(bytes)) {
+            zip.putNextEntry(new ZipEntry("xl/worksheets/sheet1.xml"));
+            zip.write(sheetXml.getBytes(StandardCharsets.UTF_8));
+            zip.closeEntry();
+        }
+        return bytes.toByteArray();
+    }
+}
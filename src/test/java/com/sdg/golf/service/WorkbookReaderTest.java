@@ -0,0 +1,134 @@
+package com.sdg.golf.service;
+
+import org.apache.poi.ss.usermodel.CellType;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WorkbookReaderTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void streamingReaderMatchesXSSFWorkbookReader() throws Exception {
+        Path path = createWorkbook(tempDir.resolve("small.xlsx"), 5, 40);
+        List<String> streamed = describeRows(new StreamingWorkbookReader(), path);
+        List<String> loaded = describeRows(new XSSFWorkbookReader(), path);
+        assertEquals(5 * 40, streamed.size());
+        assertEquals(loaded, streamed);
+    }
+
+    @Test
+    void streamingReaderSkipsSheetsNotVisited() throws Exception {
+        Path path = createWorkbook(tempDir.resolve("skip.xlsx"), 3, 10);
+        List<Integer> rowNums = new ArrayList<>();
+        new StreamingWorkbookReader().read(path, SheetVisitor.forSheet("24-4-2", row -> rowNums.add(row.getRowNum())));
+        assertEquals(10, rowNums.size());
+        assertEquals(0, rowNums.getFirst());
+    }
+
+    @Test
+    void streamingReaderHeapStaysFlatAsSheetsGrow() throws Exception {
+        Path fewSheets = createWorkbook(tempDir.resolve("few.xlsx"), 10, 150);
+        Path manySheets = createWorkbook(tempDir.resolve("many.xlsx"), 80, 150);
+
+        long streamingFew = liveHeapWhileReading(new StreamingWorkbookReader(), fewSheets);
+        long streamingMany = liveHeapWhileReading(new StreamingWorkbookReader(), manySheets);
+        long loadedMany = liveHeapWhileReading(new XSSFWorkbookReader(), manySheets);
+
+        assertTrue(streamingMany - streamingFew < 8L * 1024 * 1024,
+                "streaming heap grew from %d to %d bytes".formatted(streamingFew, streamingMany));
+        assertTrue(streamingMany * 3 < loadedMany,
+                "streaming %d bytes vs loaded %d bytes".formatted(streamingMany, loadedMany));
+    }
+
+    private List<String> describeRows(WorkbookReader reader, Path path) throws IOException {
+        List<String> rows = new ArrayList<>();
+        reader.read(path, new SheetVisitor() {
+            private String sheetName;
+
+            @Override
+            public boolean visitSheet(String name) {
+                sheetName = name;
+                return true;
+            }
+
+            @Override
+            public void visitRow(SheetRow row) {
+                StringBuilder sb = new StringBuilder(sheetName).append('!').append(row.getRowNum());
+                for (int col = 0; col < 8; col++) {
+                    CellType type = row.getCellType(col);
+                    sb.append('|').append(type);
+                    if (type == CellType.STRING) {
+                        sb.append(':').append(row.getString(col));
+                    } else if (type == CellType.NUMERIC) {
+                        sb.append(':').append(row.getNumber(col)).append(':').append(row.getDate(col).getTime());
+                    }
+                }
+                rows.add(sb.toString());
+            }
+        });
+        return rows;
+    }
+
+    /**
+     * Measures the heap still reachable after a full collection taken while the last sheet is being visited,
+     * which is when a reader holding the whole workbook is at its largest.
+     */
+    private long liveHeapWhileReading(WorkbookReader reader, Path path) throws IOException {
+        long[] used = new long[1];
+        Runtime runtime = Runtime.getRuntime();
+        System.gc();
+        reader.read(path, new SheetVisitor() {
+            @Override
+            public boolean visitSheet(String sheetName) {
+                return true;
+            }
+
+            @Override
+            public void visitRow(SheetRow row) {
+            }
+
+            @Override
+            public void endSheet() {
+                System.gc();
+                used[0] = runtime.totalMemory() - runtime.freeMemory();
+            }
+        });
+        return used[0];
+    }
+
+    static Path createWorkbook(Path path, int sheets, int rowsPerSheet) throws IOException {
+        try (SXSSFWorkbook workbook = new SXSSFWorkbook(null, 100, false, true);
+             OutputStream os = Files.newOutputStream(path)) {
+            for (int s = 1; s <= sheets; s++) {
+                Sheet sheet = workbook.createSheet("24-4-" + s);
+                for (int r = 0; r < rowsPerSheet; r++) {
+                    Row row = sheet.createRow(r);
+                    row.createCell(0).setCellValue("Player " + s + "-" + r);
+                    row.createCell(1).setCellValue(r % 30);
+                    row.createCell(2).setCellValue(45399 + s);
+                    row.createCell(3).setCellValue("Team " + (r % 12));
+                    row.createCell(5).setCellValue(r % 12 + 1);
+                    row.createCell(6).setCellValue(0.18333333333333335 + (r % 6) / 180.0);
+                    row.createCell(7).setCellValue(r % 2 == 0);
+                }
+            }
+            workbook.write(os);
+            workbook.dispose();
+        }
+        return path;
+    }
+}